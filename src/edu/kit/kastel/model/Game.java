@@ -2,20 +2,27 @@
 
 import edu.kit.kastel.model.tree.BehaviorTree;
 import edu.kit.kastel.model.tree.Trace;
+import edu.kit.kastel.model.tree.TraceLevel;
+import edu.kit.kastel.model.tree.TreeEdit;
+import edu.kit.kastel.model.tree.TreeEngine;
 import edu.kit.kastel.model.tree.nodes.Node;
 import edu.kit.kastel.model.board.Board;
+import edu.kit.kastel.model.board.CellStorageType;
 import edu.kit.kastel.model.board.Ladybug;
-import edu.kit.kastel.model.board.Position;
 import edu.kit.kastel.model.exceptions.BoardParserException;
 import edu.kit.kastel.model.exceptions.TreeParserException;
 import edu.kit.kastel.model.parsing.BoardParser;
+import edu.kit.kastel.model.parsing.EditScriptParser;
 import edu.kit.kastel.model.parsing.TreeParser;
 
+import java.io.IOException;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SeekableByteChannel;
 import java.util.List;
 import java.util.ArrayList;
-import java.util.Set;
-import java.util.HashSet;
 import java.util.Collections;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiConsumer;
 
 /**
  * Central class for managing the game state.
@@ -28,14 +35,22 @@ public class Game {
     private static final String NODE_TO_INSERT_EXISTS_ALREADY_ERROR = "the requested node to insert exists already";
     private static final int ADJUST_INDEX_NUMBER = 1;
     private static final int INITIAL_COUNT = 0;
+    private static final BiConsumer<Ladybug, Trace> IGNORE_TICK = (ladybug, trace) -> { };
     private final List<Ladybug> ladybugs;
     private final List<Ladybug> initialLadybugs;
+    private final List<Ladybug> activeLadybugs = new ArrayList<>();
     private Board board;
-    private Board initialBoard;
+    private int initialCheckpoint;
     private final BoardParser boardParser;
     private final TreeParser treeParser;
+    private final EditScriptParser editScriptParser;
     private boolean boardLoaded;
     private boolean treesLoaded;
+    private TreeEngine treeEngine = TreeEngine.INTERPRETED;
+    private TraceLevel traceLevel = TraceLevel.FULL;
+    private int promotionThreshold = BehaviorTree.DEFAULT_PROMOTION_THRESHOLD;
+    private RoundEngine roundEngine = RoundEngine.SEQUENTIAL;
+    private final ParallelRound parallelRound = new ParallelRound(ForkJoinPool.commonPool());
 
     /**
      * Creates a new game with its own board and tree parsers.
@@ -43,10 +58,75 @@ public class Game {
     public Game() {
         this.boardParser = new BoardParser();
         this.treeParser = new TreeParser();
+        this.editScriptParser = new EditScriptParser(treeParser);
         ladybugs = new ArrayList<>();
         initialLadybugs = new ArrayList<>();
     }
 
+    /**
+     * Sets the storage backend for boards loaded from now on.
+     * @param storageType the storage type,
+     *                    for example {@link CellStorageType#MEMORY_MAPPED} to keep the cells off the heap
+     */
+    public void setCellStorageType(CellStorageType storageType) {
+        boardParser.setStorageType(storageType);
+    }
+
+    /**
+     * Selects the engine that executes the behavior trees of this game.
+     * The engine applies to the trees that are already loaded as well as to trees loaded later on.
+     * @param treeEngine the tree engine
+     */
+    public void setTreeEngine(TreeEngine treeEngine) {
+        this.treeEngine = treeEngine;
+        for (Ladybug ladybug : ladybugs) {
+            if (ladybug.getBehaviorTree() != null) {
+                ladybug.getBehaviorTree().setEngine(treeEngine);
+            }
+        }
+    }
+
+    /**
+     * Selects the engine that executes the rounds of {@link #nextRound(BiConsumer)}.
+     * @param roundEngine the round engine
+     */
+    public void setRoundEngine(RoundEngine roundEngine) {
+        this.roundEngine = roundEngine;
+    }
+
+    /**
+     * Sets the number of ticks after which a tree run by {@link TreeEngine#ADAPTIVE} is compiled.
+     * The threshold applies to the trees that are already loaded as well as to trees loaded later on.
+     * @param promotionThreshold the number of ticks without edits
+     */
+    public void setPromotionThreshold(int promotionThreshold) {
+        this.promotionThreshold = promotionThreshold;
+        for (Ladybug ladybug : ladybugs) {
+            if (ladybug.getBehaviorTree() != null) {
+                ladybug.getBehaviorTree().setPromotionThreshold(promotionThreshold);
+            }
+        }
+    }
+
+    /**
+     * Sets how much of each tick is recorded in the traces of this game.
+     * The full trace is needed to print the result of a tick, while headless simulations can skip recording.
+     * The level applies to the trees that are already loaded as well as to trees loaded later on.
+     * @param traceLevel the trace level
+     */
+    public void setTraceLevel(TraceLevel traceLevel) {
+        this.traceLevel = traceLevel;
+        applyTraceLevel(traceLevel);
+    }
+
+    private void applyTraceLevel(TraceLevel traceLevel) {
+        for (Ladybug ladybug : ladybugs) {
+            if (ladybug.getBehaviorTree() != null) {
+                ladybug.getBehaviorTree().setTraceLevel(traceLevel);
+            }
+        }
+    }
+
     /**
      * Gets the board.
      * @return the current board
@@ -57,17 +137,48 @@ public Board getBoard() {
 
     /**
      * Loads a board from its textual representation and initializes ladybugs.
-     * It copies board in his initial state and  ladybugs in their initial state,
+     * It takes a checkpoint of the board and copies ladybugs in their initial state,
      * in order to reset them later on, in case trees are loaded again
      * @param lines the lines representing the board
      * @throws BoardParserException if the board could not be parsed
      */
     public void loadBoard(List<String> lines) throws BoardParserException {
         ladybugs.clear();
-        Board parsedBoard = boardParser.parseBoard(lines, ladybugs);
+        initializeBoard(boardParser.parseBoard(lines, ladybugs));
+    }
+
+    /**
+     * Loads a board by streaming its textual representation from the given channel and initializes ladybugs.
+     * Unlike {@link #loadBoard(List)}, the board text is never held in memory as a whole.
+     * @param channel the channel to read the board from
+     * @throws BoardParserException if the board could not be parsed
+     * @throws IOException if the channel cannot be read
+     */
+    public void loadBoard(SeekableByteChannel channel) throws BoardParserException, IOException {
+        ladybugs.clear();
+        initializeBoard(boardParser.parseBoard(channel, ladybugs));
+    }
+
+    /**
+     * Loads a board by streaming its textual representation in a single pass from the given channel,
+     * which does not need to support seeking, and initializes ladybugs.
+     * Unlike {@link #loadBoard(List)}, the board text is never held in memory as a whole.
+     * @param channel the channel to read the board from
+     * @throws BoardParserException if the board could not be parsed
+     * @throws IOException if the channel cannot be read
+     */
+    public void loadBoard(ReadableByteChannel channel) throws BoardParserException, IOException {
+        ladybugs.clear();
+        initializeBoard(boardParser.parseBoard(channel, ladybugs));
+    }
+
+    private void initializeBoard(Board parsedBoard) {
         setBoard(parsedBoard);
+        for (Ladybug ladybug : ladybugs) {
+            parsedBoard.occupy(ladybug.getPackedPosition(), ladybug.getId());
+        }
 
-        initialBoard = parsedBoard.copy();
+        initialCheckpoint = parsedBoard.checkpoint();
         saveInitialLadybugs();
 
         setBoardLoaded();
@@ -106,6 +217,9 @@ public void commitTrees(List<BehaviorTree> allTrees) {
         for (int i = 0; i < allTrees.size(); i++) {
             Ladybug lb = ladybugs.get(i);
             lb.setBehaviorTree(allTrees.get(i));
+            allTrees.get(i).setEngine(treeEngine);
+            allTrees.get(i).setTraceLevel(traceLevel);
+            allTrees.get(i).setPromotionThreshold(promotionThreshold);
             lb.setActive(true);
         }
         setTreesLoaded(true);
@@ -117,9 +231,47 @@ public void commitTrees(List<BehaviorTree> allTrees) {
      * @return the trace of the executed action
      */
     public Trace singleNextAction(int ladybugID) {
-        Set<Position> positions = getLadybugPositions(ladybugs);
         return ladybugs.get(ladybugID - ADJUST_INDEX_NUMBER)
-                .getBehaviorTree().tick(ladybugs.get(ladybugID - ADJUST_INDEX_NUMBER), board, positions);
+                .getBehaviorTree().tick(ladybugs.get(ladybugID - ADJUST_INDEX_NUMBER), board);
+    }
+
+    /**
+     * Executes one round, in which every active ladybug ticks once in id order.
+     * The given callback is invoked right after each tick, while the board shows the state after that tick.
+     * @param afterTick called with each ladybug and the trace of its tick, which is only valid during the call
+     */
+    public void nextRound(BiConsumer<Ladybug, Trace> afterTick) {
+        activeLadybugs.clear();
+        for (Ladybug ladybug : ladybugs) {
+            if (ladybug.getIfActive()) {
+                activeLadybugs.add(ladybug);
+            }
+        }
+        if (roundEngine == RoundEngine.PARALLEL && activeLadybugs.size() > 1 && board.supportsConcurrentReads()) {
+            parallelRound.run(activeLadybugs, board, afterTick);
+            return;
+        }
+        for (Ladybug ladybug : activeLadybugs) {
+            afterTick.accept(ladybug, ladybug.getBehaviorTree().tick(ladybug, board));
+        }
+    }
+
+    /**
+     * Executes the given number of rounds without recording any traces, which is the fastest way to advance the game.
+     * The configured trace level applies again afterwards.
+     * @param rounds the number of rounds
+     * @return the number of ticks executed, which is the number of rounds times the number of active ladybugs
+     */
+    public long runRounds(int rounds) {
+        applyTraceLevel(TraceLevel.OFF);
+        try {
+            for (int round = 0; round < rounds; round++) {
+                nextRound(IGNORE_TICK);
+            }
+        } finally {
+            applyTraceLevel(traceLevel);
+        }
+        return (long) rounds * getLadybugsSize();
     }
 
     /**
@@ -130,14 +282,6 @@ public List<Ladybug> listLadybugs() {
         return Collections.unmodifiableList(this.ladybugs);
     }
 
-    private Set<Position> getLadybugPositions(List<Ladybug> ladybugs) {
-        Set<Position> positions = new HashSet<>();
-        for (Ladybug ladybug : ladybugs) {
-            positions.add(ladybug.getPosition());
-        }
-        return positions;
-    }
-
     /**
      * Returns a ladybug by its id.
      * @param ladybugID the id
@@ -176,8 +320,18 @@ public void addSibling(int ladybugID, String existingNodeID, String newNodeRepre
         if (getLadybug(ladybugID).getBehaviorTree().hasNode(newNode.getId())) {
             throw new TreeParserException(NODE_TO_INSERT_EXISTS_ALREADY_ERROR);
         }
-        Node parent = getLadybug(ladybugID).getBehaviorTree().findNodeByID(existingNodeID).getParent();
-        ladybugs.get(ladybugID - ADJUST_INDEX_NUMBER).getBehaviorTree().addSibling(parent, existingNodeID, newNode);
+        ladybugs.get(ladybugID - ADJUST_INDEX_NUMBER).getBehaviorTree().addSibling(existingNodeID, newNode);
+    }
+
+    /**
+     * Applies an edit script to a ladybug's tree, either all of its edits or none.
+     * @param ladybugID the ladybug id
+     * @param script    the lines of the edit script
+     * @throws TreeParserException if the script cannot be parsed or an edit is invalid
+     */
+    public void editTree(int ladybugID, List<String> script) throws TreeParserException {
+        List<TreeEdit> edits = editScriptParser.parse(script);
+        ladybugs.get(ladybugID - ADJUST_INDEX_NUMBER).getBehaviorTree().applyEdits(edits);
     }
 
     /**
@@ -203,11 +357,16 @@ private boolean areTreesLoaded() {
 
 
     private void resetBoardAndLadybugs() {
-        this.board = initialBoard.copy();
+        board.rollbackTo(initialCheckpoint);
 
+        for (Ladybug ladybug : ladybugs) {
+            board.vacate(ladybug.getPackedPosition());
+        }
         ladybugs.clear();
         for (Ladybug ladybug : initialLadybugs) {
-            ladybugs.add(ladybug.copy());
+            Ladybug copy = ladybug.copy();
+            board.occupy(copy.getPackedPosition(), copy.getId());
+            ladybugs.add(copy);
         }
     }
 
@@ -0,0 +1,101 @@
+package edu.kit.kastel.model;
+
+import edu.kit.kastel.model.board.Board;
+import edu.kit.kastel.model.board.CellType;
+import edu.kit.kastel.model.board.Ladybug;
+import edu.kit.kastel.model.tree.BehaviorTree;
+import edu.kit.kastel.model.tree.Trace;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.BiConsumer;
+
+/**
+ * Executes a round of ticks with the {@link RoundEngine#PARALLEL} engine.
+ * A round has two phases. In the intent phase, every tree plans its tick concurrently on a {@link ForkJoinPool},
+ * which only reads the board as it was at the start of the round. In the commit phase, the ladybugs perform their
+ * actions one after another in id order. Before a ladybug commits, its plan is checked against the board changed by
+ * the earlier commits of the round: a plan stays valid if the cell in front of the ladybug kept its type and,
+ * for trees asking for paths, no cell changed at all. Otherwise the plan is rolled back and replayed on the current
+ * board. Thereby a later ladybug sees the moves of earlier ones, and the round is identical to a sequential one.
+ * @author ujsap
+ */
+final class ParallelRound {
+    private static final int PLANS_PER_TASK = 64;
+    private final ForkJoinPool pool;
+    private Ladybug[] ladybugs = new Ladybug[0];
+    private CellType[] frontTypes = new CellType[0];
+
+    /**
+     * Creates a new parallel round executor.
+     * @param pool the pool that plans the ticks
+     */
+    ParallelRound(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Ticks each of the given ladybugs once.
+     * @param activeLadybugs the ladybugs to tick, in id order
+     * @param board          the board, which must support concurrent reads
+     * @param afterTick      called in id order after each tick with the ladybug and its trace
+     */
+    void run(List<Ladybug> activeLadybugs, Board board, BiConsumer<Ladybug, Trace> afterTick) {
+        int count = activeLadybugs.size();
+        if (ladybugs.length < count) {
+            ladybugs = new Ladybug[count];
+            frontTypes = new CellType[count];
+        }
+        long version = board.getVersion();
+        for (int index = 0; index < count; index++) {
+            Ladybug ladybug = activeLadybugs.get(index);
+            ladybugs[index] = ladybug;
+            frontTypes[index] = frontType(board, ladybug);
+            ladybug.getBehaviorTree().checkpoint();
+        }
+
+        board.beginConcurrentReads();
+        try {
+            pool.invoke(ForkJoinTask.adapt(() -> plan(board, 0, count)));
+        } finally {
+            board.endConcurrentReads();
+        }
+
+        for (int index = 0; index < count; index++) {
+            Ladybug ladybug = ladybugs[index];
+            BehaviorTree tree = ladybug.getBehaviorTree();
+            if (board.getVersion() != version && !isPlanValid(board, ladybug, frontTypes[index])) {
+                tree.rollback();
+                tree.planTick(ladybug, board);
+            }
+            afterTick.accept(ladybug, tree.commitTick());
+        }
+        Arrays.fill(ladybugs, 0, count, null);
+    }
+
+    /**
+     * Plans the ticks of a range of ladybugs, splitting the range into subtasks until it is small enough.
+     */
+    private void plan(Board board, int from, int to) {
+        if (to - from <= PLANS_PER_TASK) {
+            for (int index = from; index < to; index++) {
+                ladybugs[index].getBehaviorTree().planTick(ladybugs[index], board);
+            }
+            return;
+        }
+        int middle = (from + to) >>> 1;
+        ForkJoinTask.invokeAll(ForkJoinTask.adapt(() -> plan(board, from, middle)),
+                ForkJoinTask.adapt(() -> plan(board, middle, to)));
+    }
+
+    private static boolean isPlanValid(Board board, Ladybug ladybug, CellType plannedFrontType) {
+        return !ladybug.getBehaviorTree().readsPaths() && frontType(board, ladybug) == plannedFrontType;
+    }
+
+    private static CellType frontType(Board board, Ladybug ladybug) {
+        long front = ladybug.getPackedCellInFront();
+        return board.isWithinBounds(front) ? board.getCellType(front) : null;
+    }
+}
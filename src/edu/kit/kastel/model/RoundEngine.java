@@ -0,0 +1,20 @@
+package edu.kit.kastel.model;
+
+/**
+ * Represents the engines that can execute a round, in which every active ladybug ticks once.
+ * Both engines produce the same traces and the same board as ticking the ladybugs one after another in id order.
+ * @author ujsap
+ */
+public enum RoundEngine {
+
+    /**
+     * Ticks the ladybugs one after another in id order.
+     */
+    SEQUENTIAL,
+
+    /**
+     * Plans the ticks of all ladybugs concurrently and commits their actions in id order.
+     * Falls back to {@link #SEQUENTIAL} if the board does not support concurrent reads.
+     */
+    PARALLEL
+}
@@ -0,0 +1,174 @@
+package edu.kit.kastel.model;
+
+import edu.kit.kastel.model.board.Ladybug;
+import edu.kit.kastel.model.exceptions.BoardParserException;
+import edu.kit.kastel.model.exceptions.TreeParserException;
+import edu.kit.kastel.model.tree.BehaviorTree;
+import edu.kit.kastel.model.tree.Trace;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.channels.Channels;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Programmatic entry point for embedding the simulation, independent of the command line interface.
+ * The engine loads boards and trees from byte sources, advances the {@link Game} round by round
+ * and passes the trace of every tick to a listener. It never prints anything.
+ * Settings such as the tree engine or the trace level are made on the underlying {@link #getGame() game}.
+ * @author ujsap
+ */
+public class SimulationEngine {
+    private static final String NO_BOARD_ERROR = "no board is loaded";
+    private static final String NO_TREES_ERROR = "no trees are loaded";
+    private static final BiConsumer<Ladybug, Trace> IGNORE_TICK = (ladybug, trace) -> { };
+    private final Game game;
+    private BiConsumer<Ladybug, Trace> traceListener = IGNORE_TICK;
+
+    /**
+     * Creates a new engine with a new game.
+     */
+    public SimulationEngine() {
+        this(new Game());
+    }
+
+    /**
+     * Creates a new engine driving the given game.
+     * @param game the game to drive
+     */
+    public SimulationEngine(Game game) {
+        this.game = game;
+    }
+
+    /**
+     * Gets the game driven by this engine.
+     * @return the game
+     */
+    public Game getGame() {
+        return game;
+    }
+
+    /**
+     * Sets the listener that receives the trace of every tick, in the order of the ticks.
+     * The trace is reused by the next tick of the same ladybug, so it is only valid during the call.
+     * @param traceListener the listener, or {@code null} to stop listening
+     */
+    public void setTraceListener(BiConsumer<Ladybug, Trace> traceListener) {
+        this.traceListener = traceListener == null ? IGNORE_TICK : traceListener;
+    }
+
+    /**
+     * Loads a board by streaming it from the given channel, replacing any previous board and trees.
+     * @param channel the channel to read the board from, which is not closed
+     * @throws BoardParserException if the board could not be parsed
+     * @throws IOException if the channel cannot be read
+     */
+    public void loadBoard(SeekableByteChannel channel) throws BoardParserException, IOException {
+        game.loadBoard(channel);
+    }
+
+    /**
+     * Loads a board by streaming it from the given stream, replacing any previous board and trees.
+     * The stream is read in a single pass and its text is never held in memory as a whole.
+     * @param input the stream to read the board from, which is not closed
+     * @throws BoardParserException if the board could not be parsed
+     * @throws IOException if the stream cannot be read
+     */
+    public void loadBoard(InputStream input) throws BoardParserException, IOException {
+        game.loadBoard(Channels.newChannel(input));
+    }
+
+    /**
+     * Loads the trees of the given UTF-8 encoded sources and assigns them to the ladybugs in order.
+     * Loading resets the board and the ladybugs. If any source fails, no tree is assigned.
+     * @param sources the streams to read the trees from, which are not closed
+     * @return the number of loaded trees
+     * @throws TreeParserException if a tree could not be parsed or there are more trees than ladybugs
+     * @throws IOException if a stream cannot be read
+     * @throws IllegalStateException if no board is loaded
+     */
+    public int loadTrees(List<InputStream> sources) throws TreeParserException, IOException {
+        if (!game.isBoardLoaded()) {
+            throw new IllegalStateException(NO_BOARD_ERROR);
+        }
+        List<Ladybug> ladybugs = game.getInitialLadybugs();
+        List<BehaviorTree> allTrees = new ArrayList<>();
+        for (InputStream source : sources) {
+            List<BehaviorTree> trees = game.loadTreeFile(readLines(source),
+                    ladybugs.subList(allTrees.size(), ladybugs.size()));
+            allTrees.addAll(trees);
+        }
+        game.commitTrees(allTrees);
+        return allTrees.size();
+    }
+
+    /**
+     * Executes one round, in which every active ladybug ticks once.
+     * @throws IllegalStateException if no board or no trees are loaded
+     */
+    public void step() {
+        checkLoaded();
+        game.nextRound(traceListener);
+    }
+
+    /**
+     * Executes the given number of rounds.
+     * Without a trace listener, no traces are recorded at all.
+     * @param rounds the number of rounds
+     * @return the number of ticks executed
+     * @throws IllegalStateException if no board or no trees are loaded
+     */
+    public long run(int rounds) {
+        checkLoaded();
+        if (traceListener == IGNORE_TICK) {
+            return game.runRounds(rounds);
+        }
+        for (int round = 0; round < rounds; round++) {
+            game.nextRound(traceListener);
+        }
+        return (long) rounds * game.getLadybugsSize();
+    }
+
+    /**
+     * Executes rounds until the given condition holds, checking it before every round.
+     * @param done      the condition that ends the simulation
+     * @param maxRounds the maximum number of rounds
+     * @return the number of rounds executed
+     * @throws IllegalStateException if no board or no trees are loaded
+     */
+    public int runUntil(BooleanSupplier done, int maxRounds) {
+        checkLoaded();
+        int rounds = 0;
+        while (rounds < maxRounds && !done.getAsBoolean()) {
+            game.nextRound(traceListener);
+            rounds++;
+        }
+        return rounds;
+    }
+
+    private void checkLoaded() {
+        if (!game.isBoardLoaded()) {
+            throw new IllegalStateException(NO_BOARD_ERROR);
+        }
+        if (game.areActionsBlocked()) {
+            throw new IllegalStateException(NO_TREES_ERROR);
+        }
+    }
+
+    private static List<String> readLines(InputStream input) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        List<String> lines = new ArrayList<>();
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lines.add(line);
+        }
+        return lines;
+    }
+}
@@ -1,52 +1,343 @@
 package edu.kit.kastel.model.board;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.ArrayList;
-import java.util.Set;
-import java.util.HashSet;
-import java.util.Queue;
-import java.util.ArrayDeque;
 
 /**
  * A two-dimensional board made of {@link CellType} cells.
+ * The cells are kept in a {@link CellStorage}, for example a bit-packed {@link PackedCellStorage}
+ * or a {@link CopyOnWriteCellStorage}, which makes {@link #copy()} take constant time.
  * Provides methods to check and update cells or find paths between positions.
+ * Depending on the {@link PathQueryMode}, path queries are answered by a {@link ConnectivityIndex} that is
+ * built on the first query and kept up to date by {@link #setCellType(Position, CellType)} afterwards,
+ * or by a reusable {@link PathSearch}.
+ * Besides the {@link Position} record, all cell accessors accept positions packed into a {@code long}
+ * by {@link #pack(int, int)}, so hot paths can work without allocating positions.
+ * With the optional change journal enabled, the first change of every cell after a checkpoint is recorded,
+ * so the board can be rolled back to a {@link #checkpoint()} in time proportional to the number of changed cells
+ * instead of copying the board.
+ * On top of the cells, an {@link OccupancyMap} stores the id of the ladybug standing on each occupied cell,
+ * so checking whether a cell is taken by a ladybug is a single hash lookup and costs no memory per free cell.
+ * Cached results can tell whether the cells they read changed: the board keeps the version of the latest change
+ * in every square region of cells, and the version of the latest change that made a cell empty or not empty,
+ * which is all that paths depend on.
  * @author Programmieren-Team
  * @author ujsap
  */
 public class Board {
 
+    private static final Direction[] DIRECTIONS = Direction.values();
     private static final int FIRST_ROW = 0;
     private static final int FIRST_COLUMN = 0;
     private static final int MAXIMUM_NEIGHBORS_CAPACITY = 4;
-    private final CellType[][] board;
+    private static final int ROW_SHIFT = 32;
+    private static final long COLUMN_MASK = 0xFFFFFFFFL;
+    private static final CellType[] CELL_TYPES = CellType.values();
+    private static final int INITIAL_JOURNAL_CAPACITY = 64;
+    private static final String INVALID_CHECKPOINT_ERROR = "checkpoint %d is not part of the journal";
+    private static final String OUT_OF_BOUNDS_ERROR = "position (%d, %d) is outside of the board";
+    private static final int INITIAL_VERSION = 0;
+    // regions are squares of 4 x 4 cells, or larger squares on boards that would need too many of them
+    private static final int MINIMUM_REGION_SHIFT = 2;
+    private static final int MAXIMUM_REGIONS = 1 << 20;
+    private final CellStorage cells;
+    private PathQueryCache pathQueryCache;
+    private ConnectivityIndex connectivity;
+    private PathSearch pathSearch;
+    private PathQueryMode pathQueryMode = PathQueryMode.CONNECTIVITY_INDEX;
+    private long version;
+    private long emptyCellsVersion;
+    private long[] regionVersions;
+    private int regionShift = MINIMUM_REGION_SHIFT;
+    private boolean concurrentReads;
+    private OccupancyMap occupants = new OccupancyMap();
+    private boolean journaling;
+    private int[] journalCells;
+    private byte[] journalTypes;
+    private int journalSize;
+    private CellSet journaledCells;
 
     /**
      * Creates a new board as a copy of a given board.
      * @param board the initial cell layout
      */
     public Board(CellType[][] board) {
-        this.board = new CellType[board.length][board[FIRST_ROW].length];
+        this.cells = new PackedCellStorage(board.length, board[FIRST_ROW].length);
         for (int row = 0; row < board.length; row++) {
-            this.board[row] = board[row].clone();
+            for (int column = 0; column < board[row].length; column++) {
+                cells.set(row * cells.columns() + column, board[row][column]);
+            }
         }
     }
 
+    /**
+     * Creates a new board on top of the given cell storage.
+     * The board takes ownership of the storage, so it must not be modified elsewhere afterwards.
+     * @param cells the storage holding the cell layout
+     */
+    public Board(CellStorage cells) {
+        this.cells = cells;
+    }
+
+    /**
+     * Packs a column and a row into a single {@code long}.
+     * Any pair of integers can be packed, including coordinates outside of the board.
+     * @param column the column index
+     * @param row    the row index
+     * @return the packed position
+     */
+    public static long pack(int column, int row) {
+        return ((long) row << ROW_SHIFT) | (column & COLUMN_MASK);
+    }
+
+    /**
+     * Packs a position into a single {@code long}.
+     * @param position the position to pack
+     * @return the packed position
+     */
+    public static long pack(Position position) {
+        return pack(position.column(), position.row());
+    }
+
+    /**
+     * Returns the column of a packed position.
+     * @param packed the packed position
+     * @return the column index
+     */
+    public static int columnOf(long packed) {
+        return (int) packed;
+    }
+
+    /**
+     * Returns the row of a packed position.
+     * @param packed the packed position
+     * @return the row index
+     */
+    public static int rowOf(long packed) {
+        return (int) (packed >> ROW_SHIFT);
+    }
+
+    /**
+     * Unpacks a packed position into a {@link Position}.
+     * @param packed the packed position
+     * @return the corresponding position
+     */
+    public static Position unpack(long packed) {
+        return new Position(columnOf(packed), rowOf(packed));
+    }
+
     /**
      * Returns the type of the cell at the given position.
      * @param position the position to look up
      * @return the cell type at that position
+     * @throws IndexOutOfBoundsException if the position is outside of the board
      */
     public CellType getCellType(Position position) {
-        return board[position.row()][position.column()];
+        return cells.get(cellIndex(position.column(), position.row()));
+    }
+
+    /**
+     * Returns the type of the cell at the given packed position.
+     * @param packed the packed position to look up
+     * @return the cell type at that position
+     * @throws IndexOutOfBoundsException if the position is outside of the board
+     */
+    public CellType getCellType(long packed) {
+        return cells.get(cellIndex(columnOf(packed), rowOf(packed)));
     }
 
     /**
      * Sets the type of the cell at the given position.
      * @param position the position to update
      * @param cellType the new cell type
+     * @throws IndexOutOfBoundsException if the position is outside of the board
      */
     public void setCellType(Position position, CellType cellType) {
-        board[position.row()][position.column()] = cellType;
+        setCell(cellIndex(position.column(), position.row()), cellType);
+    }
+
+    /**
+     * Sets the type of the cell at the given packed position.
+     * @param packed   the packed position to update
+     * @param cellType the new cell type
+     * @throws IndexOutOfBoundsException if the position is outside of the board
+     */
+    public void setCellType(long packed, CellType cellType) {
+        setCell(cellIndex(columnOf(packed), rowOf(packed)), cellType);
+    }
+
+    private void setCell(int cell, CellType cellType) {
+        CellType oldType = cells.get(cell);
+        cells.set(cell, cellType);
+        if (oldType == cellType) {
+            return;
+        }
+        version++;
+        if (regionVersions == null) {
+            regionVersions = createRegionVersions();
+        }
+        regionVersions[regionOf(cell / columns(), cell % columns())] = version;
+        if ((oldType == CellType.EMPTY) != (cellType == CellType.EMPTY)) {
+            emptyCellsVersion = version;
+        }
+        if (connectivity != null) {
+            connectivity.update(cell, oldType, cellType);
+        }
+        if (journaling) {
+            record(cell, oldType);
+        }
+    }
+
+    private void record(int cell, CellType oldType) {
+        // only the first change since the latest checkpoint is needed to restore any checkpoint
+        if (!journaledCells.add(cell)) {
+            return;
+        }
+        if (journalSize == journalCells.length) {
+            journalCells = Arrays.copyOf(journalCells, journalSize * 2);
+            journalTypes = Arrays.copyOf(journalTypes, journalSize * 2);
+        }
+        journalCells[journalSize] = cell;
+        journalTypes[journalSize] = (byte) oldType.ordinal();
+        journalSize++;
+    }
+
+    /**
+     * Returns a checkpoint describing the current state of the board.
+     * The first checkpoint enables the change journal, from then on the first change of each cell
+     * after the latest checkpoint is recorded, so the journal never holds more entries per checkpoint than cells.
+     * The recorded cells are tracked in a set that grows with the number of changed cells, not with the board.
+     * A checkpoint is the current length of the journal, so taking one costs nothing.
+     * @return the checkpoint to pass to {@link #rollbackTo(int)}
+     */
+    public int checkpoint() {
+        if (!journaling) {
+            journaling = true;
+            journalCells = new int[INITIAL_JOURNAL_CAPACITY];
+            journalTypes = new byte[INITIAL_JOURNAL_CAPACITY];
+            journaledCells = new CellSet();
+        }
+        journaledCells.clear();
+        return journalSize;
+    }
+
+    /**
+     * Restores the state of the board at the given checkpoint by undoing all changes recorded after it,
+     * newest first. The undone changes are removed from the journal, so later checkpoints become invalid.
+     * @param checkpoint a checkpoint returned by {@link #checkpoint()}
+     * @throws IllegalArgumentException if the checkpoint is not part of the journal
+     */
+    public void rollbackTo(int checkpoint) {
+        if (!journaling || checkpoint < 0 || checkpoint > journalSize) {
+            throw new IllegalArgumentException(INVALID_CHECKPOINT_ERROR.formatted(checkpoint));
+        }
+        journaling = false;
+        for (int entry = journalSize - 1; entry >= checkpoint; entry--) {
+            setCell(journalCells[entry], CELL_TYPES[journalTypes[entry]]);
+        }
+        journaling = true;
+        journalSize = checkpoint;
+        journaledCells.clear();
+    }
+
+    /**
+     * Checks if a ladybug stands on the given packed position.
+     * @param packed the packed position to check, which must be within bounds
+     * @return true if the cell is occupied by a ladybug
+     */
+    public boolean isOccupied(long packed) {
+        return getOccupant(packed) != OccupancyMap.NO_OCCUPANT;
+    }
+
+    /**
+     * Returns the id of the ladybug standing on the given packed position.
+     * @param packed the packed position to check, which must be within bounds
+     * @return the id of the ladybug, or zero if the cell is not occupied
+     */
+    public int getOccupant(long packed) {
+        return occupants.get(cellIndex(columnOf(packed), rowOf(packed)));
+    }
+
+    /**
+     * Marks the given packed position as occupied by the ladybug with the given id.
+     * @param packed    the packed position, which must be within bounds
+     * @param ladybugID the positive id of the ladybug
+     */
+    public void occupy(long packed, int ladybugID) {
+        occupants.put(cellIndex(columnOf(packed), rowOf(packed)), ladybugID);
+    }
+
+    /**
+     * Marks the given packed position as no longer occupied by any ladybug.
+     * @param packed the packed position, which must be within bounds
+     */
+    public void vacate(long packed) {
+        occupants.remove(cellIndex(columnOf(packed), rowOf(packed)));
+    }
+
+    /**
+     * Returns the modification version of this board.
+     * The version starts at zero and increases every time a cell changes its type.
+     * @return the current version
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Returns the version of the latest change of a cell in the region of the given packed position.
+     * Regions are small squares of cells, which grow on very large boards to keep their number bounded.
+     * A result that only read this cell stays valid
+     * as long as the returned version is not newer than the version the result was computed at.
+     * @param packed the packed position
+     * @return the version of the latest change in its region, or zero if none changed or it is out of bounds
+     */
+    public long getLastChange(long packed) {
+        if (regionVersions == null || !isWithinBounds(packed)) {
+            return INITIAL_VERSION;
+        }
+        return regionVersions[regionOf(rowOf(packed), columnOf(packed))];
+    }
+
+    /**
+     * Returns the version of the latest change that turned a cell empty or not empty.
+     * Paths only consist of empty cells, so path queries depend on nothing else.
+     * @return the version of the latest such change, or zero if there was none
+     */
+    public long getEmptyCellsVersion() {
+        return emptyCellsVersion;
+    }
+
+    private long[] createRegionVersions() {
+        while ((long) regionOf(rows() - 1, columns() - 1) + 1 > MAXIMUM_REGIONS) {
+            regionShift++;
+        }
+        return new long[regionOf(rows() - 1, columns() - 1) + 1];
+    }
+
+    private int regionOf(int row, int column) {
+        int regionColumns = ((columns() - 1) >> regionShift) + 1;
+        return (row >> regionShift) * regionColumns + (column >> regionShift);
+    }
+
+    /**
+     * Returns the cache for path queries on this board, which is created on the first call.
+     * @return the path query cache
+     */
+    public PathQueryCache getPathQueryCache() {
+        if (pathQueryCache == null) {
+            pathQueryCache = new PathQueryCache(this);
+        }
+        return pathQueryCache;
+    }
+
+    private int cellIndex(int column, int row) {
+        // a column outside of the board would otherwise address a cell in a neighbouring row
+        if (!isWithinBounds(column, row)) {
+            throw new IndexOutOfBoundsException(OUT_OF_BOUNDS_ERROR.formatted(column, row));
+        }
+        return row * cells.columns() + column;
     }
 
     /**
@@ -55,8 +346,21 @@ public void setCellType(Position position, CellType cellType) {
      * @return true if inside the board, false otherwise
      */
     public boolean isWithinBounds(Position position) {
-        return position.row() >= FIRST_ROW && position.row() < board.length
-                && position.column() >= FIRST_COLUMN && position.column() < board[FIRST_ROW].length;
+        return isWithinBounds(position.column(), position.row());
+    }
+
+    /**
+     * Checks if the packed position is within board bounds.
+     * @param packed the packed position to check
+     * @return true if inside the board, false otherwise
+     */
+    public boolean isWithinBounds(long packed) {
+        return isWithinBounds(columnOf(packed), rowOf(packed));
+    }
+
+    private boolean isWithinBounds(int column, int row) {
+        return row >= FIRST_ROW && row < cells.rows()
+                && column >= FIRST_COLUMN && column < cells.columns();
     }
 
     /**
@@ -68,6 +372,30 @@ public boolean isEmpty(Position position) {
         return getCellType(position) == CellType.EMPTY;
     }
 
+    /**
+     * Checks if the given packed position is empty.
+     * @param packed the packed position to check
+     * @return true if the cell is empty
+     */
+    public boolean isEmpty(long packed) {
+        return getCellType(packed) == CellType.EMPTY;
+    }
+
+    /**
+     * Checks if the packed position lies on the edge of the board,
+     * which means that at least one of its neighbors is outside of the board.
+     * @param packed the packed position to check
+     * @return true if the position is at the edge
+     */
+    public boolean isAtEdge(long packed) {
+        for (Direction direction : DIRECTIONS) {
+            if (!isWithinBounds(direction.step(packed))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Returns all neighbors positions from a given position.
      * @param position the position to start from
@@ -75,7 +403,7 @@ public boolean isEmpty(Position position) {
      */
     public List<Position> neighbors(Position position) {
         List<Position> neighbors = new ArrayList<>(MAXIMUM_NEIGHBORS_CAPACITY);
-        for (Direction direction : Direction.values()) {
+        for (Direction direction : DIRECTIONS) {
             Position neighbor = new Position(
                     position.column() + direction.getDeltaColumn(),
                     position.row() + direction.getDeltaRow());
@@ -88,39 +416,108 @@ public List<Position> neighbors(Position position) {
 
     /**
      * Checks if there is a path of empty cells between two positions.
+     * With the connectivity index, this is a comparison of the component ids of both cells.
      * @param start the starting position
      * @param goal the target position
      * @return true if a path exists, false otherwise
      */
     public boolean existsPath(Position start, Position goal) {
+        return existsPath(pack(start), pack(goal));
+    }
+
+    /**
+     * Checks if there is a path of empty cells between two packed positions.
+     * @param start the packed starting position
+     * @param goal  the packed target position
+     * @return true if a path exists, false otherwise
+     * @see #existsPath(Position, Position)
+     */
+    public boolean existsPath(long start, long goal) {
         if (!isWithinBounds(start) || !isWithinBounds(goal)) {
             return false;
         }
         if (!isEmpty(start) || !isEmpty(goal)) {
             return false;
         }
-        if (start.equals(goal)) {
+        if (start == goal) {
             return true;
         }
-
-        Set<Position> visited = new HashSet<>();
-        Queue<Position> queue = new ArrayDeque<>();
-
-        queue.add(start);
-        visited.add(start);
-
-        while (!queue.isEmpty()) {
-            Position current = queue.poll();
-            for (Position neighbor : neighbors(current)) {
-                if (neighbor.equals(goal)) {
-                    return true;
+        int startCell = cellIndex(columnOf(start), rowOf(start));
+        int goalCell = cellIndex(columnOf(goal), rowOf(goal));
+        return switch (pathQueryMode) {
+            case CONNECTIVITY_INDEX -> {
+                if (connectivity == null) {
+                    connectivity = new ConnectivityIndex(cells);
                 }
-                if (isEmpty(neighbor) && visited.add(neighbor)) {
-                    queue.add(neighbor);
+                yield connectivity.connected(startCell, goalCell);
+            }
+            case SEARCH, BIDIRECTIONAL_SEARCH -> {
+                if (pathSearch == null) {
+                    pathSearch = new PathSearch(cells);
                 }
+                yield pathSearch.existsPath(startCell, goalCell,
+                        pathQueryMode == PathQueryMode.BIDIRECTIONAL_SEARCH);
             }
+        };
+    }
+
+    /**
+     * Checks whether several threads may query this board at the same time, as long as none of them changes it.
+     * This requires a cell storage that reads without side effects and path queries answered by the
+     * {@link PathQueryMode#CONNECTIVITY_INDEX}, since the searches reuse their buffers.
+     * @return true if concurrent reads are supported, false otherwise
+     */
+    public boolean supportsConcurrentReads() {
+        return pathQueryMode == PathQueryMode.CONNECTIVITY_INDEX && cells.supportsConcurrentReads();
+    }
+
+    /**
+     * Prepares this board for being queried by several threads at the same time.
+     * The connectivity index and the {@link PathQueryCache} are created up front and the cache is bypassed,
+     * so path queries only read. The board must not be changed until {@link #endConcurrentReads()}.
+     * @see #supportsConcurrentReads()
+     */
+    public void beginConcurrentReads() {
+        if (connectivity == null) {
+            connectivity = new ConnectivityIndex(cells);
+        }
+        getPathQueryCache();
+        concurrentReads = true;
+    }
+
+    /**
+     * Ends the concurrent reads started with {@link #beginConcurrentReads()}.
+     */
+    public void endConcurrentReads() {
+        concurrentReads = false;
+    }
+
+    /**
+     * Checks whether this board is currently being queried by several threads.
+     * @return true between {@link #beginConcurrentReads()} and {@link #endConcurrentReads()}
+     */
+    boolean isReadConcurrently() {
+        return concurrentReads;
+    }
+
+    /**
+     * Returns the strategy this board uses to answer path queries.
+     * @return the path query mode
+     */
+    public PathQueryMode getPathQueryMode() {
+        return pathQueryMode;
+    }
+
+    /**
+     * Changes the strategy this board uses to answer path queries.
+     * Switching away from {@link PathQueryMode#CONNECTIVITY_INDEX} releases the index.
+     * @param pathQueryMode the new path query mode
+     */
+    public void setPathQueryMode(PathQueryMode pathQueryMode) {
+        this.pathQueryMode = pathQueryMode;
+        if (pathQueryMode != PathQueryMode.CONNECTIVITY_INDEX) {
+            connectivity = null;
         }
-        return false;
     }
 
     /**
@@ -128,11 +525,10 @@ public boolean existsPath(Position start, Position goal) {
      * @return a new Board with the same cell layout
      */
     public Board copy() {
-        CellType[][] copyCells = new CellType[board.length][board[FIRST_ROW].length];
-        for (int row = 0; row < board.length; row++) {
-            copyCells[row] = board[row].clone();
-        }
-        return new Board(copyCells);
+        Board copy = new Board(cells.copy());
+        copy.setPathQueryMode(pathQueryMode);
+        copy.occupants = occupants.copy();
+        return copy;
     }
 
 
@@ -141,7 +537,7 @@ public Board copy() {
      * @return row count
      */
     public int rows() {
-        return board.length;
+        return cells.rows();
     }
 
     /**
@@ -149,6 +545,6 @@ public int rows() {
      * @return column count
      */
     public int columns() {
-        return board[FIRST_ROW].length;
+        return cells.columns();
     }
 }
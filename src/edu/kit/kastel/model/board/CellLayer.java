@@ -0,0 +1,44 @@
+package edu.kit.kastel.model.board;
+
+/**
+ * Per-cell {@code int} values that a {@link Board} keeps next to its cell types, such as component ids or
+ * search stamps. Cells are addressed by the same row-major index as in the {@link CellStorage}.
+ * @author ujsap
+ */
+interface CellLayer {
+
+    /**
+     * Creates a layer for the given storage with every value set to the given default.
+     * The layer lives where the storage keeps its cells: a {@link MappedCellStorage} gets a memory-mapped layer,
+     * every other storage a layer on the heap.
+     * @param cells        the storage whose cells the layer annotates
+     * @param defaultValue the value of every cell of a new or cleared layer
+     * @return the new layer
+     */
+    static CellLayer create(CellStorage cells, int defaultValue) {
+        int cellCount = cells.rows() * cells.columns();
+        if (cells instanceof MappedCellStorage) {
+            return new MappedCellLayer(cellCount, defaultValue);
+        }
+        return new HeapCellLayer(cellCount, defaultValue);
+    }
+
+    /**
+     * Returns the value of the cell with the given index.
+     * @param cell the row-major cell index
+     * @return the stored value
+     */
+    int get(int cell);
+
+    /**
+     * Stores the value of the cell with the given index.
+     * @param cell  the row-major cell index
+     * @param value the new value
+     */
+    void set(int cell, int value);
+
+    /**
+     * Sets every cell back to the default value of the layer.
+     */
+    void clear();
+}
@@ -0,0 +1,71 @@
+package edu.kit.kastel.model.board;
+
+/**
+ * Helpers to pack {@link CellType} values into two bits each of a {@code long[]}.
+ * The two bits hold the ordinal of the cell type, so one word covers {@value #CELLS_PER_WORD} cells.
+ * @author ujsap
+ */
+final class CellPacking {
+
+    /**
+     * The number of cells stored in one word.
+     */
+    static final int CELLS_PER_WORD = 32;
+    private static final CellType[] CELL_TYPES = CellType.values();
+    private static final int BITS_PER_CELL = 2;
+    private static final int CELLS_PER_WORD_SHIFT = 5;
+    private static final int CELL_IN_WORD_MASK = CELLS_PER_WORD - 1;
+    private static final long CELL_MASK = (1L << BITS_PER_CELL) - 1;
+
+    private CellPacking() {
+        // Utility class
+    }
+
+    /**
+     * Reads the cell with the given index from the packed words.
+     * @param words the packed words
+     * @param cell  the cell index relative to the first word
+     * @return the stored cell type
+     */
+    static CellType read(long[] words, int cell) {
+        return CELL_TYPES[(int) ((words[cell >>> CELLS_PER_WORD_SHIFT] >>> shiftOf(cell)) & CELL_MASK)];
+    }
+
+    /**
+     * Writes the cell with the given index into the packed words.
+     * @param words    the packed words
+     * @param cell     the cell index relative to the first word
+     * @param cellType the cell type to store
+     */
+    static void write(long[] words, int cell, CellType cellType) {
+        int word = cell >>> CELLS_PER_WORD_SHIFT;
+        int shift = shiftOf(cell);
+        words[word] = (words[word] & ~(CELL_MASK << shift)) | ((long) cellType.ordinal() << shift);
+    }
+
+    /**
+     * Returns a word in which every cell holds the given cell type.
+     * @param cellType the cell type to repeat
+     * @return the filled word
+     */
+    static long filledWord(CellType cellType) {
+        long word = 0;
+        for (int i = 0; i < CELLS_PER_WORD; i++) {
+            word |= (long) cellType.ordinal() << (i * BITS_PER_CELL);
+        }
+        return word;
+    }
+
+    /**
+     * Returns the number of words needed to store the given number of cells.
+     * @param cells the number of cells
+     * @return the number of words
+     */
+    static int wordCount(long cells) {
+        return (int) ((cells + CELL_IN_WORD_MASK) >>> CELLS_PER_WORD_SHIFT);
+    }
+
+    private static int shiftOf(int cell) {
+        return (cell & CELL_IN_WORD_MASK) * BITS_PER_CELL;
+    }
+}
@@ -0,0 +1,75 @@
+package edu.kit.kastel.model.board;
+
+import java.util.Arrays;
+
+/**
+ * Set of cell indices, stored in an open-addressing hash table without boxing.
+ * The table grows with the number of cells added, not with the size of the board,
+ * so the change journal of a {@link Board} can tell which cells it already recorded since the latest checkpoint
+ * without keeping a stamp for every cell.
+ * @author ujsap
+ */
+final class CellSet {
+
+    private static final int INITIAL_CAPACITY = 64;
+    private static final int GROWTH_FACTOR = 2;
+    // slots hold the cell index plus one, so a zero slot is free
+    private static final int FREE = 0;
+    private static final int SLOT_OFFSET = 1;
+    // spreads consecutive cell indices over the table
+    private static final int HASH_MULTIPLIER = 0x9E3779B9;
+    private static final int HASH_SHIFT = 16;
+
+    private int[] slots = new int[INITIAL_CAPACITY];
+    private int size;
+
+    /**
+     * Adds the given cell to the set.
+     * @param cell the index of the cell
+     * @return true if the cell was not in the set before, false otherwise
+     */
+    boolean add(int cell) {
+        if ((size + 1) * GROWTH_FACTOR > slots.length) {
+            grow();
+        }
+        if (!insert(slots, cell + SLOT_OFFSET)) {
+            return false;
+        }
+        size++;
+        return true;
+    }
+
+    /**
+     * Removes all cells from the set, keeping the table it has grown to.
+     */
+    void clear() {
+        if (size > 0) {
+            Arrays.fill(slots, FREE);
+            size = 0;
+        }
+    }
+
+    private void grow() {
+        int[] grown = new int[slots.length * GROWTH_FACTOR];
+        for (int slot : slots) {
+            if (slot != FREE) {
+                insert(grown, slot);
+            }
+        }
+        slots = grown;
+    }
+
+    private static boolean insert(int[] table, int value) {
+        int mask = table.length - 1;
+        int hash = value * HASH_MULTIPLIER;
+        int index = (hash ^ (hash >>> HASH_SHIFT)) & mask;
+        while (table[index] != FREE) {
+            if (table[index] == value) {
+                return false;
+            }
+            index = (index + 1) & mask;
+        }
+        table[index] = value;
+        return true;
+    }
+}
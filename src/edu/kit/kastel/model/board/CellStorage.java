@@ -0,0 +1,50 @@
+package edu.kit.kastel.model.board;
+
+/**
+ * Backend that stores the {@link CellType} of every cell of a {@link Board}.
+ * Cells are addressed by their row-major index, which is {@code row * columns() + column}.
+ * @author ujsap
+ */
+public interface CellStorage {
+
+    /**
+     * Returns the number of rows of the stored grid.
+     * @return row count
+     */
+    int rows();
+
+    /**
+     * Returns the number of columns of the stored grid.
+     * @return column count
+     */
+    int columns();
+
+    /**
+     * Returns the type of the cell with the given index.
+     * @param cell the row-major cell index
+     * @return the cell type stored at that index
+     */
+    CellType get(int cell);
+
+    /**
+     * Checks whether {@link #get(int)} may be called by several threads at the same time,
+     * as long as no thread stores a cell meanwhile.
+     * @return true if reading has no side effects, which is the case for in-memory storages
+     */
+    default boolean supportsConcurrentReads() {
+        return true;
+    }
+
+    /**
+     * Stores the type of the cell with the given index.
+     * @param cell     the row-major cell index
+     * @param cellType the new cell type
+     */
+    void set(int cell, CellType cellType);
+
+    /**
+     * Creates an independent copy of this storage.
+     * @return a new storage with the same cells
+     */
+    CellStorage copy();
+}
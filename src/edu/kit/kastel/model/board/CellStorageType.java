@@ -0,0 +1,38 @@
+package edu.kit.kastel.model.board;
+
+/**
+ * Represents the available {@link CellStorage} backends of a {@link Board}.
+ * @author ujsap
+ */
+public enum CellStorageType {
+    /**
+     * Two bits per cell in a single {@code long[]}, see {@link PackedCellStorage}. This is the default backend.
+     */
+    PACKED,
+
+    /**
+     * Packed tiles shared between copies until they are written, see {@link CopyOnWriteCellStorage}.
+     * Only pays off for boards that are snapshotted with {@link Board#copy()}.
+     */
+    COPY_ON_WRITE,
+
+    /**
+     * Packed tiles in a memory-mapped file, which keeps the cells out of the heap, see {@link MappedCellStorage}.
+     * The per-cell layers of the board are memory-mapped as well, so boards may be larger than the heap.
+     */
+    MEMORY_MAPPED;
+
+    /**
+     * Creates a new storage of this type with every cell set to {@link CellType#EMPTY}.
+     * @param rows    the number of rows
+     * @param columns the number of columns
+     * @return the new storage
+     */
+    public CellStorage create(int rows, int columns) {
+        return switch (this) {
+            case PACKED -> new PackedCellStorage(rows, columns);
+            case COPY_ON_WRITE -> new CopyOnWriteCellStorage(rows, columns);
+            case MEMORY_MAPPED -> new MappedCellStorage(rows, columns);
+        };
+    }
+}
@@ -0,0 +1,267 @@
+package edu.kit.kastel.model.board;
+
+import java.util.Arrays;
+
+/**
+ * Connected-component index over the {@link CellType#EMPTY} cells of a {@link CellStorage}.
+ * Every empty cell carries the id of its component, so two cells are connected by a path of empty cells
+ * exactly if they carry the same id. The index is updated incrementally when a single cell changes:
+ * an empty cell turning blocked only relabels the component it actually splits, and a blocked cell
+ * turning empty only relabels the smaller components it joins.
+ * @author ujsap
+ */
+final class ConnectivityIndex {
+
+    private static final Direction[] DIRECTIONS = Direction.values();
+    private static final int BLOCKED = -1;
+    private static final int INITIAL_CAPACITY = 64;
+    private static final int GROWTH_FACTOR = 2;
+    private static final int RING_SIZE = 8;
+    private static final int NO_RUN = -1;
+
+    // row and column offsets of the eight cells around a cell, in clockwise order starting above it
+    private static final int[] RING_DELTA_ROWS = {-1, -1, 0, 1, 1, 1, 0, -1};
+    private static final int[] RING_DELTA_COLUMNS = {0, 1, 1, 1, 0, -1, -1, -1};
+    private static final int ORTHOGONAL_STEP = 2;
+
+    private final CellStorage cells;
+    private final int rows;
+    private final int columns;
+    private final CellLayer componentOf;
+    private final int[] adjacent = new int[DIRECTIONS.length];
+    private final int[] scratch = new int[DIRECTIONS.length];
+    private final boolean[] ringEmpty = new boolean[RING_SIZE];
+    private final int[] ringRun = new int[RING_SIZE];
+    private int[] componentSizes = new int[INITIAL_CAPACITY];
+    private int[] freeIds = new int[INITIAL_CAPACITY];
+    private int freeIdCount;
+    private int nextId;
+    private int[] stack = new int[INITIAL_CAPACITY];
+
+    /**
+     * Builds the index for the current content of the given storage.
+     * @param cells the storage to index
+     */
+    ConnectivityIndex(CellStorage cells) {
+        this.cells = cells;
+        this.rows = cells.rows();
+        this.columns = cells.columns();
+        int cellCount = rows * columns;
+        this.componentOf = CellLayer.create(cells, BLOCKED);
+        for (int cell = 0; cell < cellCount; cell++) {
+            if (componentOf.get(cell) == BLOCKED && cells.get(cell) == CellType.EMPTY) {
+                int id = allocateId();
+                componentOf.set(cell, id);
+                componentSizes[id] = relabel(cell, BLOCKED, id);
+            }
+        }
+    }
+
+    /**
+     * Checks whether two cells are empty and belong to the same component.
+     * @param first  the first cell index
+     * @param second the second cell index
+     * @return true if a path of empty cells connects both cells
+     */
+    boolean connected(int first, int second) {
+        return componentOf.get(first) != BLOCKED && componentOf.get(first) == componentOf.get(second);
+    }
+
+    /**
+     * Updates the index after the cell with the given index changed its type.
+     * @param cell    the changed cell index
+     * @param oldType the previous cell type
+     * @param newType the new cell type
+     */
+    void update(int cell, CellType oldType, CellType newType) {
+        boolean wasEmpty = oldType == CellType.EMPTY;
+        boolean isEmpty = newType == CellType.EMPTY;
+        if (wasEmpty && !isEmpty) {
+            split(cell);
+        } else if (!wasEmpty && isEmpty) {
+            join(cell);
+        }
+    }
+
+    private void split(int cell) {
+        int oldId = componentOf.get(cell);
+        componentOf.set(cell, BLOCKED);
+        componentSizes[oldId]--;
+        if (ringConnected(cell)) {
+            releaseIfUnused(oldId);
+            return;
+        }
+        int adjacentCount = emptyNeighbors(cell, adjacent);
+        for (int i = 0; i < adjacentCount; i++) {
+            int neighbor = adjacent[i];
+            if (componentOf.get(neighbor) != oldId) {
+                continue;
+            }
+            int newId = allocateId();
+            componentOf.set(neighbor, newId);
+            int moved = relabel(neighbor, oldId, newId);
+            componentSizes[newId] = moved;
+            componentSizes[oldId] -= moved;
+        }
+        releaseIfUnused(oldId);
+    }
+
+    private void join(int cell) {
+        int adjacentCount = emptyNeighbors(cell, adjacent);
+        int target = BLOCKED;
+        for (int i = 0; i < adjacentCount; i++) {
+            int id = componentOf.get(adjacent[i]);
+            if (target == BLOCKED || componentSizes[id] > componentSizes[target]) {
+                target = id;
+            }
+        }
+        if (target == BLOCKED) {
+            target = allocateId();
+        }
+        componentOf.set(cell, target);
+        componentSizes[target]++;
+        for (int i = 0; i < adjacentCount; i++) {
+            int neighbor = adjacent[i];
+            int id = componentOf.get(neighbor);
+            if (id == target) {
+                continue;
+            }
+            componentOf.set(neighbor, target);
+            int moved = relabel(neighbor, id, target);
+            componentSizes[target] += moved;
+            componentSizes[id] -= moved;
+            releaseIfUnused(id);
+        }
+    }
+
+    /**
+     * Checks whether all empty orthogonal neighbors of a cell are still connected through the ring
+     * of the eight cells surrounding it. If they are, blocking the cell can not split its component.
+     */
+    private boolean ringConnected(int cell) {
+        int row = cell / columns;
+        int column = cell - row * columns;
+        int blockedPosition = NO_RUN;
+        for (int i = 0; i < RING_SIZE; i++) {
+            int ringRow = row + RING_DELTA_ROWS[i];
+            int ringColumn = column + RING_DELTA_COLUMNS[i];
+            ringEmpty[i] = isInside(ringRow, ringColumn) && componentOf.get(ringRow * columns + ringColumn) != BLOCKED;
+            if (!ringEmpty[i]) {
+                blockedPosition = i;
+            }
+        }
+        if (blockedPosition == NO_RUN) {
+            return true;
+        }
+        int run = NO_RUN;
+        for (int step = 1; step <= RING_SIZE; step++) {
+            int i = (blockedPosition + step) % RING_SIZE;
+            if (!ringEmpty[i]) {
+                ringRun[i] = NO_RUN;
+                continue;
+            }
+            int previous = (i + RING_SIZE - 1) % RING_SIZE;
+            if (!ringEmpty[previous]) {
+                run++;
+            }
+            ringRun[i] = run;
+        }
+        int orthogonalRun = NO_RUN;
+        for (int i = 0; i < RING_SIZE; i += ORTHOGONAL_STEP) {
+            if (!ringEmpty[i]) {
+                continue;
+            }
+            if (orthogonalRun != NO_RUN && ringRun[i] != orthogonalRun) {
+                return false;
+            }
+            orthogonalRun = ringRun[i];
+        }
+        return true;
+    }
+
+    /**
+     * Relabels every cell reachable from the given start cell through cells labeled {@code from} to {@code to}.
+     * Labeling from {@link #BLOCKED} only follows cells that are empty in the storage.
+     * The start cell itself must already be labeled {@code to}.
+     * @return the number of cells carrying the new label, including the start cell
+     */
+    private int relabel(int start, int from, int to) {
+        int labeled = 1;
+        int size = 0;
+        stack[size++] = start;
+        while (size > 0) {
+            int current = stack[--size];
+            int neighborCount = labeledNeighbors(current, from, scratch);
+            stack = ensureCapacity(stack, size + neighborCount);
+            for (int i = 0; i < neighborCount; i++) {
+                int neighbor = scratch[i];
+                componentOf.set(neighbor, to);
+                stack[size++] = neighbor;
+                labeled++;
+            }
+        }
+        return labeled;
+    }
+
+    private int emptyNeighbors(int cell, int[] target) {
+        int count = 0;
+        int row = cell / columns;
+        int column = cell - row * columns;
+        for (Direction direction : DIRECTIONS) {
+            int neighborRow = row + direction.getDeltaRow();
+            int neighborColumn = column + direction.getDeltaColumn();
+            if (!isInside(neighborRow, neighborColumn)) {
+                continue;
+            }
+            int neighbor = neighborRow * columns + neighborColumn;
+            if (componentOf.get(neighbor) != BLOCKED) {
+                target[count++] = neighbor;
+            }
+        }
+        return count;
+    }
+
+    private int labeledNeighbors(int cell, int label, int[] target) {
+        int count = 0;
+        int row = cell / columns;
+        int column = cell - row * columns;
+        for (Direction direction : DIRECTIONS) {
+            int neighborRow = row + direction.getDeltaRow();
+            int neighborColumn = column + direction.getDeltaColumn();
+            if (!isInside(neighborRow, neighborColumn)) {
+                continue;
+            }
+            int neighbor = neighborRow * columns + neighborColumn;
+            if (componentOf.get(neighbor) == label && (label != BLOCKED || cells.get(neighbor) == CellType.EMPTY)) {
+                target[count++] = neighbor;
+            }
+        }
+        return count;
+    }
+
+    private boolean isInside(int row, int column) {
+        return row >= 0 && row < rows && column >= 0 && column < columns;
+    }
+
+    private int allocateId() {
+        if (freeIdCount > 0) {
+            return freeIds[--freeIdCount];
+        }
+        componentSizes = ensureCapacity(componentSizes, nextId + 1);
+        return nextId++;
+    }
+
+    private void releaseIfUnused(int id) {
+        if (componentSizes[id] == 0) {
+            freeIds = ensureCapacity(freeIds, freeIdCount + 1);
+            freeIds[freeIdCount++] = id;
+        }
+    }
+
+    private static int[] ensureCapacity(int[] array, int capacity) {
+        if (capacity <= array.length) {
+            return array;
+        }
+        return Arrays.copyOf(array, Math.max(capacity, array.length * GROWTH_FACTOR));
+    }
+}
@@ -0,0 +1,94 @@
+package edu.kit.kastel.model.board;
+
+import java.util.Arrays;
+
+/**
+ * Persistent cell storage that splits the packed cells into fixed-size tiles shared between copies.
+ * {@link #copy()} only hands the tile table to the new storage and therefore takes constant time.
+ * A storage duplicates the tile table on its first write after a copy, and a tile only when it writes into it,
+ * so a copy costs memory proportional to the tiles that are actually changed afterwards.
+ * @author ujsap
+ */
+public final class CopyOnWriteCellStorage implements CellStorage {
+
+    private static final int TILE_SHIFT = 12;
+    private static final int TILE_CELLS = 1 << TILE_SHIFT;
+    private static final int TILE_CELL_MASK = TILE_CELLS - 1;
+    private final int rows;
+    private final int columns;
+    private long[][] tiles;
+    private Object[] tileOwners;
+    private boolean tableShared;
+    private Object owner;
+
+    /**
+     * Creates a new storage of the given size with every cell set to {@link CellType#EMPTY}.
+     * All tiles initially share one empty tile, which is duplicated on the first write into each tile.
+     * @param rows    the number of rows
+     * @param columns the number of columns
+     */
+    public CopyOnWriteCellStorage(int rows, int columns) {
+        this.rows = rows;
+        this.columns = columns;
+        long cellCount = (long) rows * columns;
+        int tileCount = (int) ((cellCount + TILE_CELL_MASK) >>> TILE_SHIFT);
+        long[] emptyTile = new long[CellPacking.wordCount(TILE_CELLS)];
+        Arrays.fill(emptyTile, CellPacking.filledWord(CellType.EMPTY));
+        this.tiles = new long[tileCount][];
+        Arrays.fill(tiles, emptyTile);
+        this.tileOwners = new Object[tileCount];
+        this.owner = new Object();
+    }
+
+    private CopyOnWriteCellStorage(int rows, int columns, long[][] tiles, Object[] tileOwners) {
+        this.rows = rows;
+        this.columns = columns;
+        this.tiles = tiles;
+        this.tileOwners = tileOwners;
+        this.tableShared = true;
+        this.owner = new Object();
+    }
+
+    @Override
+    public int rows() {
+        return rows;
+    }
+
+    @Override
+    public int columns() {
+        return columns;
+    }
+
+    @Override
+    public CellType get(int cell) {
+        return CellPacking.read(tiles[cell >>> TILE_SHIFT], cell & TILE_CELL_MASK);
+    }
+
+    @Override
+    public void set(int cell, CellType cellType) {
+        int tile = cell >>> TILE_SHIFT;
+        if (tableShared) {
+            tiles = tiles.clone();
+            tileOwners = tileOwners.clone();
+            tableShared = false;
+        }
+        if (tileOwners[tile] != owner) {
+            tiles[tile] = tiles[tile].clone();
+            tileOwners[tile] = owner;
+        }
+        CellPacking.write(tiles[tile], cell & TILE_CELL_MASK, cellType);
+    }
+
+    /**
+     * Creates a copy of this storage in constant time.
+     * Both storages keep sharing all tiles until one of them writes into a tile.
+     * @return a new storage with the same cells
+     */
+    @Override
+    public CopyOnWriteCellStorage copy() {
+        // a fresh owner makes this storage treat every tile as shared from now on
+        tableShared = true;
+        owner = new Object();
+        return new CopyOnWriteCellStorage(rows, columns, tiles, tileOwners);
+    }
+}
@@ -67,6 +67,15 @@ public int getDeltaColumn() {
         return this.deltaColumn;
     }
 
+    /**
+     * Returns the packed position one step away from the given packed position in this direction.
+     * @param packed the packed position to start from, see {@link Board#pack(int, int)}
+     * @return the packed neighbor position, which may lie outside of the board
+     */
+    public long step(long packed) {
+        return Board.pack(Board.columnOf(packed) + deltaColumn, Board.rowOf(packed) + deltaRow);
+    }
+
     /**
      * Returns the direction that results from turning left.
      * @return the new direction after turning left
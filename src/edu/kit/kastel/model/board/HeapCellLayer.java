@@ -0,0 +1,39 @@
+package edu.kit.kastel.model.board;
+
+import java.util.Arrays;
+
+/**
+ * {@link CellLayer} backed by a plain {@code int[]} on the heap.
+ * @author ujsap
+ */
+final class HeapCellLayer implements CellLayer {
+
+    private final int[] values;
+    private final int defaultValue;
+
+    /**
+     * Creates a new layer with every value set to the given default.
+     * @param cellCount    the number of cells
+     * @param defaultValue the value of every cell of a new or cleared layer
+     */
+    HeapCellLayer(int cellCount, int defaultValue) {
+        this.values = new int[cellCount];
+        this.defaultValue = defaultValue;
+        clear();
+    }
+
+    @Override
+    public int get(int cell) {
+        return values[cell];
+    }
+
+    @Override
+    public void set(int cell, int value) {
+        values[cell] = value;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(values, defaultValue);
+    }
+}
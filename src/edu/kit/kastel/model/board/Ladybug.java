@@ -2,17 +2,20 @@
 
 import edu.kit.kastel.model.tree.BehaviorTree;
 
-import java.util.Set;
-
 /**
  * Represents a ladybug that can move, turn, and interact with objects on the board.
  * A ladybug has an id, a position, a facing direction and optionally a behavior tree.
+ * The position is kept packed into a {@code long} (see {@link Board#pack(int, int)}), so moving and
+ * looking at the cell in front do not allocate; a {@link Position} is only created when it is asked for.
+ * Moving and flying keep the occupancy layer of the {@link Board} up to date, so other ladybugs are detected
+ * with a single lookup of the target cell.
  * @author ujsap
  */
 public class Ladybug {
     private static final int NO_MOVEMENT_DELTA = 0;
     private final int id;
-    private Position position;
+    private long position;
+    private Position positionView;
     private Direction direction;
     private BehaviorTree behaviorTree;
     private boolean isActive;
@@ -24,6 +27,17 @@ public class Ladybug {
      * @param direction the initial facing direction
      */
     public Ladybug(int id, Position position, Direction direction) {
+        this(id, Board.pack(position), direction);
+        this.positionView = position;
+    }
+
+    /**
+     * Creates a new ladybug with the given id, packed starting position, and direction.
+     * @param id the unique identifier of the ladybug
+     * @param position the initial packed position on the board
+     * @param direction the initial facing direction
+     */
+    public Ladybug(int id, long position, Direction direction) {
         this.id = id;
         this.position = position;
         this.direction = direction;
@@ -43,15 +57,40 @@ public int getId() {
      * @return the current position of the ladybug
      **/
     public Position getPosition() {
+        if (positionView == null) {
+            positionView = Board.unpack(position);
+        }
+        return positionView;
+    }
+
+    /**
+     * Gets the current packed position of the ladybug.
+     * @return the current position, packed into a long
+     **/
+    public long getPackedPosition() {
         return position;
     }
 
     /**
      * Updates the position of the ladybug.
+     * The occupancy of the board is not changed, see {@link Board#occupy(long, int)}.
      * @param position the new position
      */
     public void setPosition(Position position) {
-        this.position = position;
+        this.position = Board.pack(position);
+        this.positionView = position;
+    }
+
+    /**
+     * Updates the position of the ladybug.
+     * The occupancy of the board is not changed, see {@link Board#occupy(long, int)}.
+     * @param position the new packed position
+     */
+    public void setPosition(long position) {
+        if (this.position != position) {
+            this.position = position;
+            this.positionView = null;
+        }
     }
 
     /**
@@ -81,17 +120,25 @@ public void turnRight() {
      * @return the position of the cell in front
      */
     public Position getCellInFront() {
-        return new Position(
-                position.column() + direction.getDeltaColumn(),
-                position.row()  + direction.getDeltaRow()
-        );
+        return Board.unpack(getPackedCellInFront());
+    }
+
+    /**
+     * Returns the packed position directly in front of the ladybug.
+     * @return the packed position of the cell in front
+     */
+    public long getPackedCellInFront() {
+        return direction.step(position);
     }
 
     /**
-     * Moves the ladybug to the given position.
-     * @param newPosition the target position
+     * Moves the ladybug to the given packed position and updates the occupancy of the board.
+     * @param board       the board
+     * @param newPosition the packed target position
      */
-    private void moveTo(Position newPosition) {
+    private void moveTo(Board board, long newPosition) {
+        board.vacate(position);
+        board.occupy(newPosition, id);
         setPosition(newPosition);
     }
 
@@ -100,25 +147,23 @@ private void moveTo(Position newPosition) {
      * Movement is blocked by trees, leaves or other ladybugs.
      * Front cell in the facing direction must be within bounds.
      * @param board the board
-     * @param ladybugPositions positions of other ladybugs
      * @return true if the move succeeded, false otherwise
      */
-    public boolean moveForward(Board board, Set<Position> ladybugPositions) {
-        Position front = getCellInFront();
-        if (!canEnterFront(board, ladybugPositions, front)) {
+    public boolean moveForward(Board board) {
+        long front = getPackedCellInFront();
+        if (!board.isWithinBounds(front) || board.isOccupied(front)) {
             return false;
         }
         switch (board.getCellType(front)) {
             case EMPTY -> {
-                moveTo(front);
+                moveTo(board, front);
                 return true;
             }
             case MUSHROOM -> {
-                Position mushroomFront = new Position(front.column() + direction.getDeltaColumn(),
-                        front.row() + direction.getDeltaRow());
+                long mushroomFront = direction.step(front);
                 if (board.isWithinBounds(mushroomFront) && board.isEmpty(mushroomFront)) {
                     moveMushroom(board, front, mushroomFront);
-                    moveTo(front);
+                    moveTo(board, front);
                     return true;
                 }
                 return false;
@@ -129,11 +174,7 @@ public boolean moveForward(Board board, Set<Position> ladybugPositions) {
         }
     }
 
-    private boolean canEnterFront(Board board, Set<Position> ladybugPositions, Position front) {
-        return board.isWithinBounds(front) && !ladybugPositions.contains(front);
-    }
-
-    private void moveMushroom(Board board, Position from, Position to) {
+    private void moveMushroom(Board board, long from, long to) {
         board.setCellType(to, CellType.MUSHROOM);
         board.setCellType(from, CellType.EMPTY);
     }
@@ -173,7 +214,7 @@ public boolean takeLeafFront(Board board) {
     }
 
     private boolean updateFrontCell(Board board, CellType expected, CellType target) {
-        Position inFront = getCellInFront();
+        long inFront = getPackedCellInFront();
         if (!board.isWithinBounds(inFront)) {
             return false;
         }
@@ -189,21 +230,31 @@ private boolean updateFrontCell(Board board, CellType expected, CellType target)
      * The direction after flying is updated.
      * @param board the board
      * @param goal the target position
-     * @param ladybugPositions positions of other ladybugs
      * @return true if the flight succeeded, false otherwise
      */
-    public boolean fly(Board board, Position goal, Set<Position> ladybugPositions) {
-        if (!board.isWithinBounds(goal) || !board.isEmpty(goal) || ladybugPositions.contains(goal)) {
+    public boolean fly(Board board, Position goal) {
+        return fly(board, Board.pack(goal));
+    }
+
+    /**
+     * Makes the ladybug fly to a new packed position if it is empty and within bounds.
+     * @param board  the board
+     * @param target the packed target position
+     * @return true if the flight succeeded, false otherwise
+     * @see #fly(Board, Position)
+     */
+    public boolean fly(Board board, long target) {
+        if (!board.isWithinBounds(target) || !board.isEmpty(target) || board.isOccupied(target)) {
             return false;
         }
-        this.direction = calculateDirectionAfterFly(goal);
-        moveTo(goal);
+        this.direction = calculateDirectionAfterFly(target);
+        moveTo(board, target);
         return true;
     }
 
-    private Direction calculateDirectionAfterFly(Position goal) {
-        int deltaX = goal.column() - this.position.column();
-        int deltaY = goal.row() - this.position.row();
+    private Direction calculateDirectionAfterFly(long goal) {
+        int deltaX = Board.columnOf(goal) - Board.columnOf(this.position);
+        int deltaY = Board.rowOf(goal) - Board.rowOf(this.position);
 
         if (deltaY == NO_MOVEMENT_DELTA && deltaX == NO_MOVEMENT_DELTA) {
             return this.direction;
@@ -0,0 +1,46 @@
+package edu.kit.kastel.model.board;
+
+import java.io.UncheckedIOException;
+
+/**
+ * {@link CellLayer} kept out of the heap in {@link MappedTiles memory-mapped tiles}, four bytes per cell.
+ * Values are stored relative to the default value, so the zero-filled file starts out with the default.
+ * Like {@link MappedCellStorage}, the layer must not be accessed by several threads at once.
+ * @author ujsap
+ */
+final class MappedCellLayer implements CellLayer {
+
+    private static final String FILE_SUFFIX = ".layer";
+    private static final int BYTES_PER_CELL_SHIFT = 2;
+    private final int defaultValue;
+    private final MappedTiles tiles;
+
+    /**
+     * Creates a new layer with every value set to the given default.
+     * @param cellCount    the number of cells
+     * @param defaultValue the value of every cell of a new or cleared layer
+     * @throws UncheckedIOException if the backing file cannot be created
+     */
+    MappedCellLayer(int cellCount, int defaultValue) {
+        this.defaultValue = defaultValue;
+        this.tiles = new MappedTiles(this, (long) cellCount << BYTES_PER_CELL_SHIFT,
+                MappedCellStorage.DEFAULT_HOT_TILES, FILE_SUFFIX);
+    }
+
+    @Override
+    public int get(int cell) {
+        long byteIndex = (long) cell << BYTES_PER_CELL_SHIFT;
+        return tiles.tile(byteIndex).getInt(MappedTiles.offsetOf(byteIndex)) ^ defaultValue;
+    }
+
+    @Override
+    public void set(int cell, int value) {
+        long byteIndex = (long) cell << BYTES_PER_CELL_SHIFT;
+        tiles.tile(byteIndex).putInt(MappedTiles.offsetOf(byteIndex), value ^ defaultValue);
+    }
+
+    @Override
+    public void clear() {
+        tiles.clear();
+    }
+}
@@ -0,0 +1,120 @@
+package edu.kit.kastel.model.board;
+
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+
+/**
+ * Cell storage that keeps the cells out of the heap, in a temporary memory-mapped file.
+ * The cells are packed with four cells per byte and the file is mapped in fixed-size {@link MappedTiles tiles}.
+ * The storage only keeps a bounded number of recently used tiles; the least recently used tile is dropped
+ * when another one is needed. Java offers no way to unmap a buffer explicitly, so a dropped tile stays mapped
+ * until the garbage collector reclaims its buffer, and the mapped address space is not strictly bounded.
+ * A {@link Board} on this storage keeps its other per-cell layers, the connectivity index and the visited
+ * stamps of path searches, in {@link CellLayer memory-mapped layers} as well, and tracks ladybugs and
+ * journal entries only for the cells they concern, so the heap does not grow with the number of cells.
+ * Cells are still addressed by {@code int} indices, which limits a board to {@link Integer#MAX_VALUE} cells.
+ * The file is deleted once the storage becomes unreachable.
+ * Cell types are stored relative to {@link CellType#EMPTY}, so the zero-filled file starts out empty.
+ * @author ujsap
+ */
+public final class MappedCellStorage implements CellStorage {
+
+    /**
+     * The default number of tiles the storage keeps at the same time.
+     */
+    public static final int DEFAULT_HOT_TILES = 64;
+    private static final CellType[] CELL_TYPES = CellType.values();
+    private static final String FILE_SUFFIX = ".cells";
+    private static final int EMPTY_CODE = CellType.EMPTY.ordinal();
+    private static final int CELLS_PER_BYTE_SHIFT = 2;
+    private static final int CELL_IN_BYTE_MASK = (1 << CELLS_PER_BYTE_SHIFT) - 1;
+    private static final int BITS_PER_CELL = 2;
+    private static final int CELL_MASK = (1 << BITS_PER_CELL) - 1;
+    private final int rows;
+    private final int columns;
+    private final MappedTiles tiles;
+
+    /**
+     * Creates a new storage of the given size with every cell set to {@link CellType#EMPTY}.
+     * @param rows    the number of rows
+     * @param columns the number of columns
+     * @throws UncheckedIOException if the backing file cannot be created
+     */
+    public MappedCellStorage(int rows, int columns) {
+        this(rows, columns, DEFAULT_HOT_TILES);
+    }
+
+    /**
+     * Creates a new storage of the given size with every cell set to {@link CellType#EMPTY}.
+     * @param rows     the number of rows
+     * @param columns  the number of columns
+     * @param hotTiles the maximum number of tiles the storage keeps at the same time
+     * @throws UncheckedIOException if the backing file cannot be created
+     */
+    public MappedCellStorage(int rows, int columns, int hotTiles) {
+        this.rows = rows;
+        this.columns = columns;
+        long byteCount = (((long) rows * columns) + CELL_IN_BYTE_MASK) >>> CELLS_PER_BYTE_SHIFT;
+        this.tiles = new MappedTiles(this, byteCount, hotTiles, FILE_SUFFIX);
+    }
+
+    private MappedCellStorage(int rows, int columns, MappedCellStorage original) {
+        this.rows = rows;
+        this.columns = columns;
+        this.tiles = original.tiles.copy(this);
+    }
+
+    @Override
+    public int rows() {
+        return rows;
+    }
+
+    @Override
+    public int columns() {
+        return columns;
+    }
+
+    @Override
+    public CellType get(int cell) {
+        long byteIndex = byteOf(cell);
+        int value = tiles.tile(byteIndex).get(MappedTiles.offsetOf(byteIndex));
+        return CELL_TYPES[((value >>> shiftOf(cell)) & CELL_MASK) ^ EMPTY_CODE];
+    }
+
+    @Override
+    public void set(int cell, CellType cellType) {
+        long byteIndex = byteOf(cell);
+        MappedByteBuffer buffer = tiles.tile(byteIndex);
+        int offset = MappedTiles.offsetOf(byteIndex);
+        int shift = shiftOf(cell);
+        int value = (buffer.get(offset) & ~(CELL_MASK << shift)) | ((cellType.ordinal() ^ EMPTY_CODE) << shift);
+        buffer.put(offset, (byte) value);
+    }
+
+    /**
+     * Reading a cell may map and drop tiles, so the storage must not be read by several threads at once.
+     * @return false
+     */
+    @Override
+    public boolean supportsConcurrentReads() {
+        return false;
+    }
+
+    /**
+     * Creates a copy of this storage in a new backing file.
+     * @return a new storage with the same cells
+     * @throws UncheckedIOException if the file cannot be copied
+     */
+    @Override
+    public MappedCellStorage copy() {
+        return new MappedCellStorage(rows, columns, this);
+    }
+
+    private static long byteOf(int cell) {
+        return Integer.toUnsignedLong(cell) >>> CELLS_PER_BYTE_SHIFT;
+    }
+
+    private static int shiftOf(int cell) {
+        return (cell & CELL_IN_BYTE_MASK) * BITS_PER_CELL;
+    }
+}
@@ -0,0 +1,162 @@
+package edu.kit.kastel.model.board;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.ref.Cleaner;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Temporary file that is mapped into memory in fixed-size tiles, the backing of the memory-mapped layers of a board.
+ * Only a bounded number of recently used tiles is kept; the least recently used tile is dropped
+ * when another one is needed. Java offers no way to unmap a buffer explicitly, so a dropped tile stays mapped
+ * until the garbage collector reclaims its buffer.
+ * The file starts out filled with zeros and is deleted once the owner of the tiles becomes unreachable.
+ * @author ujsap
+ */
+final class MappedTiles {
+
+    // tiles hold a multiple of four bytes, so an int never straddles two tiles
+    private static final int TILE_SHIFT = 16;
+    private static final int TILE_BYTES = 1 << TILE_SHIFT;
+    private static final Cleaner CLEANER = Cleaner.create();
+    private static final String FILE_PREFIX = "board";
+    private static final int TILE_BYTE_MASK = TILE_BYTES - 1;
+    private static final int NO_TILE = -1;
+    private final long byteCount;
+    private final int hotTiles;
+    private final String fileSuffix;
+    private final FileChannel channel;
+    private final Map<Integer, MappedByteBuffer> mappedTiles;
+    private int lastTile = NO_TILE;
+    private MappedByteBuffer lastBuffer;
+
+    /**
+     * Creates a new zero-filled file of the given size.
+     * @param owner      the object whose unreachability deletes the file
+     * @param byteCount  the size of the file in bytes
+     * @param hotTiles   the maximum number of tiles kept at the same time
+     * @param fileSuffix the suffix of the temporary file, which tells what it holds
+     * @throws UncheckedIOException if the file cannot be created
+     */
+    MappedTiles(Object owner, long byteCount, int hotTiles, String fileSuffix) {
+        this.byteCount = byteCount;
+        this.hotTiles = hotTiles;
+        this.fileSuffix = fileSuffix;
+        this.mappedTiles = new LinkedHashMap<>(hotTiles, 1f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, MappedByteBuffer> eldest) {
+                return size() > MappedTiles.this.hotTiles;
+            }
+        };
+        try {
+            Path file = Files.createTempFile(FILE_PREFIX, fileSuffix);
+            this.channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            CLEANER.register(owner, new FileRemover(channel, file));
+            if (byteCount > 0) {
+                // writing the last byte extends the file, the bytes in between read as zero
+                channel.write(ByteBuffer.allocate(1), byteCount - 1);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Returns the tile holding the byte with the given index.
+     * @param byteIndex the index of the byte in the file
+     * @return the mapped tile, to be accessed at {@link #offsetOf(long)}
+     * @throws UncheckedIOException if the tile cannot be mapped
+     */
+    MappedByteBuffer tile(long byteIndex) {
+        int tile = (int) (byteIndex >>> TILE_SHIFT);
+        if (tile == lastTile) {
+            return lastBuffer;
+        }
+        MappedByteBuffer buffer = mappedTiles.get(tile);
+        if (buffer == null) {
+            buffer = map(tile);
+            mappedTiles.put(tile, buffer);
+        }
+        lastTile = tile;
+        lastBuffer = buffer;
+        return buffer;
+    }
+
+    /**
+     * Returns the offset of the byte with the given index within its tile.
+     * @param byteIndex the index of the byte in the file
+     * @return the offset within the tile
+     */
+    static int offsetOf(long byteIndex) {
+        return (int) (byteIndex & TILE_BYTE_MASK);
+    }
+
+    /**
+     * Creates a copy of the file with the same number of hot tiles, owned by the given object.
+     * @param owner the object whose unreachability deletes the copy
+     * @return the copied tiles
+     * @throws UncheckedIOException if the file cannot be copied
+     */
+    MappedTiles copy(Object owner) {
+        MappedTiles copy = new MappedTiles(owner, byteCount, hotTiles, fileSuffix);
+        try {
+            long transferred = 0;
+            while (transferred < byteCount) {
+                transferred += channel.transferTo(transferred, byteCount - transferred, copy.channel);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return copy;
+    }
+
+    /**
+     * Sets every byte of the file back to zero.
+     * @throws UncheckedIOException if the file cannot be written
+     */
+    void clear() {
+        ByteBuffer zeros = ByteBuffer.allocate((int) Math.min(TILE_BYTES, Math.max(byteCount, 1)));
+        try {
+            long written = 0;
+            while (written < byteCount) {
+                zeros.clear().limit((int) Math.min(zeros.capacity(), byteCount - written));
+                written += channel.write(zeros, written);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private MappedByteBuffer map(int tile) {
+        long start = (long) tile << TILE_SHIFT;
+        try {
+            return channel.map(FileChannel.MapMode.READ_WRITE, start, Math.min(TILE_BYTES, byteCount - start));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Closes the channel and deletes the backing file once the owner is unreachable.
+     * @param channel the channel of the backing file
+     * @param file    the backing file
+     */
+    private record FileRemover(FileChannel channel, Path file) implements Runnable {
+        @Override
+        public void run() {
+            try {
+                channel.close();
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                // the file lives in the temporary directory, so a leftover is acceptable
+            }
+        }
+    }
+}
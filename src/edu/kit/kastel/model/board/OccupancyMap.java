@@ -0,0 +1,125 @@
+package edu.kit.kastel.model.board;
+
+import java.util.Arrays;
+
+/**
+ * Map from cell indices to the ids of the ladybugs standing on them, stored in an open-addressing hash table
+ * without boxing. The table grows with the number of ladybugs, not with the size of the board.
+ * Removed entries are not marked as deleted; the entries behind them are moved back instead,
+ * so lookups never have to skip over removed slots.
+ * @author ujsap
+ */
+final class OccupancyMap {
+
+    /**
+     * The value of cells that no ladybug stands on.
+     */
+    static final int NO_OCCUPANT = 0;
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int GROWTH_FACTOR = 2;
+    // keys hold the cell index plus one, so a zero key is free
+    private static final int FREE = 0;
+    private static final int KEY_OFFSET = 1;
+    // spreads consecutive cell indices over the table
+    private static final int HASH_MULTIPLIER = 0x9E3779B9;
+    private static final int HASH_SHIFT = 16;
+
+    private int[] keys = new int[INITIAL_CAPACITY];
+    private int[] ids = new int[INITIAL_CAPACITY];
+    private int size;
+
+    /**
+     * Returns the id of the ladybug standing on the given cell.
+     * @param cell the index of the cell
+     * @return the id of the ladybug, or {@link #NO_OCCUPANT} if the cell is not occupied
+     */
+    int get(int cell) {
+        int slot = find(keys, cell + KEY_OFFSET);
+        return keys[slot] == FREE ? NO_OCCUPANT : ids[slot];
+    }
+
+    /**
+     * Marks the given cell as occupied by the ladybug with the given id, replacing any previous occupant.
+     * @param cell      the index of the cell
+     * @param ladybugID the positive id of the ladybug
+     */
+    void put(int cell, int ladybugID) {
+        if ((size + 1) * GROWTH_FACTOR > keys.length) {
+            grow();
+        }
+        int key = cell + KEY_OFFSET;
+        int slot = find(keys, key);
+        if (keys[slot] == FREE) {
+            keys[slot] = key;
+            size++;
+        }
+        ids[slot] = ladybugID;
+    }
+
+    /**
+     * Marks the given cell as no longer occupied.
+     * @param cell the index of the cell
+     */
+    void remove(int cell) {
+        int mask = keys.length - 1;
+        int hole = find(keys, cell + KEY_OFFSET);
+        if (keys[hole] == FREE) {
+            return;
+        }
+        // moves back every following entry of the probe run whose home slot does not lie between hole and entry
+        for (int slot = (hole + 1) & mask; keys[slot] != FREE; slot = (slot + 1) & mask) {
+            int home = homeOf(keys[slot], mask);
+            if (((slot - home) & mask) >= ((slot - hole) & mask)) {
+                keys[hole] = keys[slot];
+                ids[hole] = ids[slot];
+                hole = slot;
+            }
+        }
+        keys[hole] = FREE;
+        ids[hole] = NO_OCCUPANT;
+        size--;
+    }
+
+    /**
+     * Creates an independent copy of this map.
+     * @return a new map with the same occupants
+     */
+    OccupancyMap copy() {
+        OccupancyMap copy = new OccupancyMap();
+        copy.keys = Arrays.copyOf(keys, keys.length);
+        copy.ids = Arrays.copyOf(ids, ids.length);
+        copy.size = size;
+        return copy;
+    }
+
+    private void grow() {
+        int[] grownKeys = new int[keys.length * GROWTH_FACTOR];
+        int[] grownIds = new int[grownKeys.length];
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] != FREE) {
+                int target = find(grownKeys, keys[slot]);
+                grownKeys[target] = keys[slot];
+                grownIds[target] = ids[slot];
+            }
+        }
+        keys = grownKeys;
+        ids = grownIds;
+    }
+
+    /**
+     * Returns the slot holding the given key, or the free slot where it would be inserted.
+     */
+    private static int find(int[] table, int key) {
+        int mask = table.length - 1;
+        int slot = homeOf(key, mask);
+        while (table[slot] != FREE && table[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private static int homeOf(int key, int mask) {
+        int hash = key * HASH_MULTIPLIER;
+        return (hash ^ (hash >>> HASH_SHIFT)) & mask;
+    }
+}
@@ -0,0 +1,62 @@
+package edu.kit.kastel.model.board;
+
+import java.util.Arrays;
+
+/**
+ * Cell storage that packs every cell into two bits of a {@code long[]} in row-major order.
+ * The two bits hold the ordinal of the {@link CellType}, so one word covers 32 cells.
+ * @author ujsap
+ */
+public final class PackedCellStorage implements CellStorage {
+
+    private final int rows;
+    private final int columns;
+    private final long[] words;
+
+    /**
+     * Creates a new storage of the given size with every cell set to {@link CellType#EMPTY}.
+     * @param rows    the number of rows
+     * @param columns the number of columns
+     */
+    public PackedCellStorage(int rows, int columns) {
+        this.rows = rows;
+        this.columns = columns;
+        this.words = new long[CellPacking.wordCount((long) rows * columns)];
+        Arrays.fill(words, CellPacking.filledWord(CellType.EMPTY));
+    }
+
+    private PackedCellStorage(int rows, int columns, long[] words) {
+        this.rows = rows;
+        this.columns = columns;
+        this.words = words;
+    }
+
+    @Override
+    public int rows() {
+        return rows;
+    }
+
+    @Override
+    public int columns() {
+        return columns;
+    }
+
+    @Override
+    public CellType get(int cell) {
+        return CellPacking.read(words, cell);
+    }
+
+    @Override
+    public void set(int cell, CellType cellType) {
+        CellPacking.write(words, cell, cellType);
+    }
+
+    /**
+     * Creates a copy of this storage by cloning the backing word array.
+     * @return a new storage with the same cells
+     */
+    @Override
+    public PackedCellStorage copy() {
+        return new PackedCellStorage(rows, columns, words.clone());
+    }
+}
@@ -0,0 +1,101 @@
+package edu.kit.kastel.model.board;
+
+import java.util.Arrays;
+
+/**
+ * Bounded cache of path query results of a {@link Board}.
+ * Each result is stored together with the {@link Board#getEmptyCellsVersion() version of the empty cells}
+ * it was computed for, so any change that makes a cell empty or not empty implicitly invalidates all cached results,
+ * while other changes keep them.
+ * The cache is direct-mapped: a query only ever competes with other queries of the same slot.
+ * While the board is read concurrently, queries bypass the cache and go to the board directly.
+ * The condition cache of each tree keeps the results of its own path conditions on top of this cache,
+ * which covers those phases; this cache shares results between nodes and trees that ask the same query.
+ * @author ujsap
+ */
+public final class PathQueryCache {
+
+    /**
+     * The number of slots of a cache.
+     */
+    public static final int CAPACITY = 1024;
+    private static final int SLOT_MASK = CAPACITY - 1;
+    private static final int HASH_SHIFT = 32;
+    private static final long NO_VERSION = -1;
+    private static final long HASH_MULTIPLIER = 0x9E3779B97F4A7C15L;
+    private final Board board;
+    private final long[] starts = new long[CAPACITY];
+    private final long[] goals = new long[CAPACITY];
+    private final long[] versions = new long[CAPACITY];
+    private final boolean[] results = new boolean[CAPACITY];
+    private long hits;
+    private long misses;
+
+    /**
+     * Creates an empty cache for the given board.
+     * @param board the board whose path queries are cached
+     */
+    PathQueryCache(Board board) {
+        this.board = board;
+        Arrays.fill(versions, NO_VERSION);
+    }
+
+    /**
+     * Checks if there is a path of empty cells between two positions, using a cached result if possible.
+     * @param start the starting position
+     * @param goal  the target position
+     * @return true if a path exists, false otherwise
+     * @see Board#existsPath(Position, Position)
+     */
+    public boolean existsPath(Position start, Position goal) {
+        return existsPath(Board.pack(start), Board.pack(goal));
+    }
+
+    /**
+     * Checks if there is a path of empty cells between two packed positions, using a cached result if possible.
+     * @param startKey the packed starting position
+     * @param goalKey  the packed target position
+     * @return true if a path exists, false otherwise
+     * @see Board#existsPath(long, long)
+     */
+    public boolean existsPath(long startKey, long goalKey) {
+        if (board.isReadConcurrently()) {
+            return board.existsPath(startKey, goalKey);
+        }
+        int slot = slotOf(startKey, goalKey);
+        long version = board.getEmptyCellsVersion();
+        if (versions[slot] == version && starts[slot] == startKey && goals[slot] == goalKey) {
+            hits++;
+            return results[slot];
+        }
+        misses++;
+        boolean result = board.existsPath(startKey, goalKey);
+        starts[slot] = startKey;
+        goals[slot] = goalKey;
+        versions[slot] = version;
+        results[slot] = result;
+        return result;
+    }
+
+    /**
+     * Returns how many queries were answered from the cache.
+     * @return the number of cache hits
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * Returns how many queries had to be computed by the board.
+     * @return the number of cache misses
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    private static int slotOf(long startKey, long goalKey) {
+        long hash = startKey * HASH_MULTIPLIER + goalKey;
+        hash ^= hash >>> HASH_SHIFT;
+        return (int) hash & SLOT_MASK;
+    }
+}
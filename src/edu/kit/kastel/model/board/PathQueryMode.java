@@ -0,0 +1,25 @@
+package edu.kit.kastel.model.board;
+
+/**
+ * Represents the strategies a {@link Board} can use to answer path queries.
+ * @author ujsap
+ */
+public enum PathQueryMode {
+    /**
+     * Queries compare component ids of an incrementally maintained connectivity index.
+     * Best when the board is queried more often than it changes.
+     */
+    CONNECTIVITY_INDEX,
+
+    /**
+     * Queries run a breadth-first search from the start cell.
+     * Needs no index maintenance when cells change.
+     */
+    SEARCH,
+
+    /**
+     * Queries run a breadth-first search from both ends at the same time,
+     * which explores fewer cells on large open boards.
+     */
+    BIDIRECTIONAL_SEARCH
+}
@@ -0,0 +1,190 @@
+package edu.kit.kastel.model.board;
+
+/**
+ * Reusable breadth-first search over the empty cells of a {@link CellStorage}.
+ * The search works on row-major cell indices only: the frontier is kept in {@code int[]} ring queues
+ * and visited cells are stamped with a generation counter, so nothing is allocated or cleared per search.
+ * In bidirectional mode the search grows one frontier from each end and always expands the smaller one.
+ * @author ujsap
+ */
+final class PathSearch {
+
+    private static final Direction[] DIRECTIONS = Direction.values();
+    private static final int INITIAL_QUEUE_CAPACITY = 1024;
+    private static final int GROWTH_FACTOR = 2;
+    private static final int NOT_VISITED = 0;
+    private static final int GENERATION_STEP = 2;
+    private static final int OUTSIDE = -1;
+    private final CellStorage cells;
+    private final int rows;
+    private final int columns;
+    private final CellLayer visited;
+    private final int lastGeneration;
+    private int generation;
+    private final RingQueue forward = new RingQueue();
+    private final RingQueue backward = new RingQueue();
+
+    /**
+     * Creates a new search for the given storage.
+     * @param cells the storage to search in
+     */
+    PathSearch(CellStorage cells) {
+        this(cells, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Creates a new search for the given storage whose generation counter wraps around at the given value,
+     * so a test can reach the wraparound of the counter without running billions of searches.
+     * @param cells          the storage to search in
+     * @param lastGeneration the largest generation before the counter wraps around, at least two
+     */
+    PathSearch(CellStorage cells, int lastGeneration) {
+        this.cells = cells;
+        this.rows = cells.rows();
+        this.columns = cells.columns();
+        this.visited = CellLayer.create(cells, NOT_VISITED);
+        this.lastGeneration = lastGeneration;
+    }
+
+    /**
+     * Checks if two empty cells are connected by a path of empty cells.
+     * Both cells must be inside the storage and empty.
+     * @param start         the start cell index
+     * @param goal          the goal cell index
+     * @param bidirectional whether to search from both ends at the same time
+     * @return true if a path exists
+     */
+    boolean existsPath(int start, int goal, boolean bidirectional) {
+        if (start == goal) {
+            return true;
+        }
+        int forwardStamp = nextGeneration();
+        if (!bidirectional) {
+            return searchForward(start, goal, forwardStamp);
+        }
+        return searchBidirectional(start, goal, forwardStamp, forwardStamp + 1);
+    }
+
+    private boolean searchForward(int start, int goal, int stamp) {
+        forward.clear();
+        forward.add(start);
+        visited.set(start, stamp);
+        while (!forward.isEmpty()) {
+            int current = forward.poll();
+            for (Direction direction : DIRECTIONS) {
+                int neighbor = neighborOf(current, direction);
+                if (neighbor == goal) {
+                    return true;
+                }
+                if (neighbor != OUTSIDE && visited.get(neighbor) != stamp && cells.get(neighbor) == CellType.EMPTY) {
+                    visited.set(neighbor, stamp);
+                    forward.add(neighbor);
+                }
+            }
+        }
+        return false;
+    }
+
+    private boolean searchBidirectional(int start, int goal, int forwardStamp, int backwardStamp) {
+        forward.clear();
+        backward.clear();
+        forward.add(start);
+        backward.add(goal);
+        visited.set(start, forwardStamp);
+        visited.set(goal, backwardStamp);
+        while (!forward.isEmpty() && !backward.isEmpty()) {
+            boolean expandForward = forward.size() <= backward.size();
+            RingQueue frontier = expandForward ? forward : backward;
+            int ownStamp = expandForward ? forwardStamp : backwardStamp;
+            int otherStamp = expandForward ? backwardStamp : forwardStamp;
+            if (expandLevel(frontier, ownStamp, otherStamp)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean expandLevel(RingQueue frontier, int ownStamp, int otherStamp) {
+        for (int remaining = frontier.size(); remaining > 0; remaining--) {
+            int current = frontier.poll();
+            for (Direction direction : DIRECTIONS) {
+                int neighbor = neighborOf(current, direction);
+                if (neighbor == OUTSIDE || visited.get(neighbor) == ownStamp) {
+                    continue;
+                }
+                if (visited.get(neighbor) == otherStamp) {
+                    return true;
+                }
+                if (cells.get(neighbor) == CellType.EMPTY) {
+                    visited.set(neighbor, ownStamp);
+                    frontier.add(neighbor);
+                }
+            }
+        }
+        return false;
+    }
+
+    private int neighborOf(int cell, Direction direction) {
+        int row = cell / columns + direction.getDeltaRow();
+        int column = cell % columns + direction.getDeltaColumn();
+        if (row < 0 || row >= rows || column < 0 || column >= columns) {
+            return OUTSIDE;
+        }
+        return row * columns + column;
+    }
+
+    private int nextGeneration() {
+        if (generation > lastGeneration - GENERATION_STEP) {
+            visited.clear();
+            generation = NOT_VISITED;
+        }
+        generation += GENERATION_STEP;
+        return generation - 1;
+    }
+
+    /**
+     * Growable first-in-first-out queue of cell indices backed by a circular {@code int[]}.
+     */
+    private static final class RingQueue {
+        private int[] elements = new int[INITIAL_QUEUE_CAPACITY];
+        private int head;
+        private int size;
+
+        void clear() {
+            head = 0;
+            size = 0;
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        int size() {
+            return size;
+        }
+
+        void add(int element) {
+            if (size == elements.length) {
+                grow();
+            }
+            elements[(head + size) % elements.length] = element;
+            size++;
+        }
+
+        int poll() {
+            int element = elements[head];
+            head = (head + 1) % elements.length;
+            size--;
+            return element;
+        }
+
+        private void grow() {
+            int[] grown = new int[elements.length * GROWTH_FACTOR];
+            for (int i = 0; i < size; i++) {
+                grown[i] = elements[(head + i) % elements.length];
+            }
+            elements = grown;
+            head = 0;
+        }
+    }
+}
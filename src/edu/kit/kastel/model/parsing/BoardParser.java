@@ -5,21 +5,64 @@
 import edu.kit.kastel.model.board.Ladybug;
 import edu.kit.kastel.model.board.CellType;
 import edu.kit.kastel.model.board.Direction;
+import edu.kit.kastel.model.board.CellStorage;
+import edu.kit.kastel.model.board.CellStorageType;
 import edu.kit.kastel.model.board.Position;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
  * Parses textual representations of a board into Board objects.
  * A board is described line by line, with each character representing either a CellType or a Ladybug.
  * When a ladybug symbol is encountered, a new Ladybug instance is created and added to the given list.
+ * The cells are written straight into a {@link CellStorage} of the configured {@link CellStorageType}.
+ * Symbols are resolved through lookup tables indexed by the character, and a board can also be streamed
+ * from a channel byte by byte, so huge board files never have to be held in memory as text.
+ * Channels that cannot seek, such as the ones of input streams, are read in a single pass.
+ * All three ways of reading a board accept the same input and report the first defect in reading order.
  * @author ujsap
  */
 public final class BoardParser {
 
     private static final int START_ID = 1;
+    private static final int SYMBOL_RANGE = 256;
+    private static final int UNSIGNED_BYTE_MASK = 0xFF;
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int INITIAL_ROW_CAPACITY = 64;
+    // streamed rows are collected in packed blocks of about this many cells
+    private static final int BLOCK_CELLS = 1 << 16;
+    private static final char INVALID_SYMBOL = 0;
+    private static final byte LINE_FEED = '\n';
+    private static final byte CARRIAGE_RETURN = '\r';
+    private static final CellType[] CELL_TYPES_BY_SYMBOL = new CellType[SYMBOL_RANGE];
+    private static final Direction[] DIRECTIONS_BY_SYMBOL = new Direction[SYMBOL_RANGE];
     private static final String INVALID_CELL_TYPE_ERROR = "invalid cell type %s";
     private static final String NO_LADYBUG_ON_BOARD_ERROR = "no ladybug on board";
+    private static final String ROW_TOO_SHORT_ERROR = "row %d is shorter than the first row";
+    private CellStorageType storageType = CellStorageType.PACKED;
+
+    static {
+        for (CellType cellType : CellType.values()) {
+            CELL_TYPES_BY_SYMBOL[cellType.toChar()] = cellType;
+        }
+        for (Direction direction : Direction.values()) {
+            DIRECTIONS_BY_SYMBOL[direction.toChar()] = direction;
+        }
+    }
+
+    /**
+     * Sets the storage backend that parsed boards are written into, {@link CellStorageType#PACKED} by default.
+     * @param storageType the storage type for boards parsed from now on
+     */
+    public void setStorageType(CellStorageType storageType) {
+        this.storageType = storageType;
+    }
 
     /**
      * Reads a board from the given text lines.
@@ -30,38 +73,276 @@ public final class BoardParser {
      */
     public Board parseBoard(List<String> lines, List<Ladybug> ladybugs) throws BoardParserException {
         final int rows = lines.size();
-        final int columns = lines.getFirst().length();
-        final CellType[][] board = new CellType[rows][columns];
+        final int columns = lines.isEmpty() ? 0 : lines.getFirst().length();
+        final CellStorage cells = storageType.create(rows, columns);
 
         int ladybugID = START_ID;
 
         for (int rowIndex = 0; rowIndex < rows; rowIndex++) {
             final String row = lines.get(rowIndex);
-            for (int column = 0; column < columns; column++) {
+            // the cells are read before the length is checked, like the channel parsers do while streaming
+            final int length = Math.min(row.length(), columns);
+            for (int column = 0; column < length; column++) {
                 final char character = row.charAt(column);
-
-                Direction direction = Direction.fromChar(character);
-                if (direction != null) {
-                    ladybugs.add(new Ladybug(ladybugID, new Position(column, rowIndex), direction));
+                if (readCell(cells, rowIndex * columns + column, character)) {
+                    ladybugs.add(new Ladybug(ladybugID, new Position(column, rowIndex),
+                            DIRECTIONS_BY_SYMBOL[character]));
                     ladybugID++;
-                    board[rowIndex][column] = CellType.EMPTY;
-                    continue;
                 }
+            }
+            checkRowLength(rowIndex, row.length(), columns);
+        }
 
-                CellType cellType = CellType.fromChar(character);
-                if (cellType != null) {
-                    board[rowIndex][column] = cellType;
+        if (ladybugs.isEmpty()) {
+            throw new BoardParserException(NO_LADYBUG_ON_BOARD_ERROR);
+        }
+
+        return new Board(cells);
+    }
+
+    /**
+     * Reads a board byte by byte from the given channel, starting at its current position.
+     * A first pass only measures the number of rows and the length of the first row, so the storage can be
+     * created with its final size; the second pass writes every cell directly into the storage.
+     * Lines may end with {@code \n}, {@code \r\n} or {@code \r}, just like lines read with
+     * {@link java.nio.file.Files#readAllLines(java.nio.file.Path)}.
+     * @param channel  the channel to read the board from, for example a {@link java.nio.channels.FileChannel}
+     * @param ladybugs the list where all parsed ladybugs are added
+     * @return a board with the parsed cells
+     * @throws BoardParserException if an invalid symbol is found or if the board contains no ladybugs
+     * @throws IOException if the channel cannot be read
+     */
+    public Board parseBoard(SeekableByteChannel channel, List<Ladybug> ladybugs)
+            throws BoardParserException, IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        final long start = channel.position();
+        final long shape = measure(channel, buffer);
+        final int rows = Board.rowOf(shape);
+        final int columns = Board.columnOf(shape);
+        final CellStorage cells = storageType.create(rows, columns);
+        channel.position(start);
+
+        int ladybugID = START_ID;
+        int rowIndex = 0;
+        int column = 0;
+        boolean afterCarriageReturn = false;
+
+        buffer.clear();
+        while (channel.read(buffer) >= 0) {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                final byte symbol = buffer.get();
+                if (symbol == LINE_FEED && afterCarriageReturn) {
+                    afterCarriageReturn = false;
                     continue;
                 }
+                afterCarriageReturn = symbol == CARRIAGE_RETURN;
+                if (symbol == LINE_FEED || symbol == CARRIAGE_RETURN) {
+                    checkRowLength(rowIndex, column, columns);
+                    rowIndex++;
+                    column = 0;
+                    continue;
+                }
+                if (column < columns) {
+                    final char character = (char) (symbol & UNSIGNED_BYTE_MASK);
+                    if (readCell(cells, rowIndex * columns + column, character)) {
+                        ladybugs.add(new Ladybug(ladybugID, Board.pack(column, rowIndex),
+                                DIRECTIONS_BY_SYMBOL[character]));
+                        ladybugID++;
+                    }
+                }
+                column++;
+            }
+            buffer.clear();
+        }
+        if (column > 0) {
+            checkRowLength(rowIndex, column, columns);
+        }
+
+        if (ladybugs.isEmpty()) {
+            throw new BoardParserException(NO_LADYBUG_ON_BOARD_ERROR);
+        }
+
+        return new Board(cells);
+    }
+
+    /**
+     * Reads a board byte by byte in a single pass from the given channel, which does not need to support seeking.
+     * The first row is buffered until its length is known; from then on the cells are collected in packed blocks
+     * of rows, which are copied into a storage of the final size after the last row.
+     * The board text is never held in memory, but the cells are held twice while the storage is filled.
+     * Lines may end with {@code \n}, {@code \r\n} or {@code \r}.
+     * @param channel  the channel to read the board from, for example one of an input stream
+     * @param ladybugs the list where all parsed ladybugs are added
+     * @return a board with the parsed cells
+     * @throws BoardParserException if an invalid symbol is found or if the board contains no ladybugs
+     * @throws IOException if the channel cannot be read
+     * @see java.nio.channels.Channels#newChannel(java.io.InputStream)
+     */
+    public Board parseBoard(ReadableByteChannel channel, List<Ladybug> ladybugs)
+            throws BoardParserException, IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        byte[] firstRow = new byte[INITIAL_ROW_CAPACITY];
+        RowBlocks blocks = null;
+        int ladybugID = START_ID;
+        int rowIndex = 0;
+        int column = 0;
+        boolean afterCarriageReturn = false;
 
-                throw new BoardParserException(INVALID_CELL_TYPE_ERROR.formatted(character));
+        while (channel.read(buffer) >= 0) {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                final byte symbol = buffer.get();
+                if (symbol == LINE_FEED && afterCarriageReturn) {
+                    afterCarriageReturn = false;
+                    continue;
+                }
+                afterCarriageReturn = symbol == CARRIAGE_RETURN;
+                if (symbol == LINE_FEED || symbol == CARRIAGE_RETURN) {
+                    if (blocks == null) {
+                        blocks = new RowBlocks(column);
+                        ladybugID = readFirstRow(blocks, firstRow, ladybugs, ladybugID);
+                    }
+                    checkRowLength(rowIndex, column, blocks.columns);
+                    rowIndex++;
+                    column = 0;
+                    continue;
+                }
+                if (blocks == null) {
+                    if (column == firstRow.length) {
+                        firstRow = Arrays.copyOf(firstRow, column * 2);
+                    }
+                    firstRow[column] = symbol;
+                } else if (column < blocks.columns) {
+                    ladybugID = readStreamedCell(blocks, rowIndex, column, symbol, ladybugs, ladybugID);
+                }
+                column++;
             }
+            buffer.clear();
+        }
+        if (blocks == null) {
+            blocks = new RowBlocks(column);
+            readFirstRow(blocks, firstRow, ladybugs, ladybugID);
+        }
+        if (column > 0) {
+            checkRowLength(rowIndex, column, blocks.columns);
+            rowIndex++;
         }
 
         if (ladybugs.isEmpty()) {
             throw new BoardParserException(NO_LADYBUG_ON_BOARD_ERROR);
         }
 
-        return new Board(board);
+        final CellStorage cells = storageType.create(rowIndex, blocks.columns);
+        blocks.copyTo(cells);
+        return new Board(cells);
+    }
+
+    private static int readFirstRow(RowBlocks blocks, byte[] firstRow, List<Ladybug> ladybugs, int firstID)
+            throws BoardParserException {
+        int ladybugID = firstID;
+        for (int column = 0; column < blocks.columns; column++) {
+            ladybugID = readStreamedCell(blocks, 0, column, firstRow[column], ladybugs, ladybugID);
+        }
+        return ladybugID;
+    }
+
+    private static int readStreamedCell(RowBlocks blocks, int row, int column, byte symbol, List<Ladybug> ladybugs,
+                                        int ladybugID) throws BoardParserException {
+        final char character = (char) (symbol & UNSIGNED_BYTE_MASK);
+        if (!readCell(blocks.blockOf(row), blocks.cellOf(row, column), character)) {
+            return ladybugID;
+        }
+        ladybugs.add(new Ladybug(ladybugID, Board.pack(column, row), DIRECTIONS_BY_SYMBOL[character]));
+        return ladybugID + 1;
+    }
+
+    private static long measure(SeekableByteChannel channel, ByteBuffer buffer) throws IOException {
+        int rows = 0;
+        int firstRowLength = 0;
+        boolean lineOpen = false;
+        boolean afterCarriageReturn = false;
+
+        while (channel.read(buffer) >= 0) {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                final byte symbol = buffer.get();
+                if (symbol == LINE_FEED && afterCarriageReturn) {
+                    afterCarriageReturn = false;
+                    continue;
+                }
+                afterCarriageReturn = symbol == CARRIAGE_RETURN;
+                if (symbol == LINE_FEED || symbol == CARRIAGE_RETURN) {
+                    rows++;
+                    lineOpen = false;
+                } else {
+                    lineOpen = true;
+                    if (rows == 0) {
+                        firstRowLength++;
+                    }
+                }
+            }
+            buffer.clear();
+        }
+        if (lineOpen) {
+            rows++;
+        }
+        return Board.pack(firstRowLength, rows);
+    }
+
+    private static void checkRowLength(int rowIndex, int length, int columns) throws BoardParserException {
+        if (length < columns) {
+            throw new BoardParserException(ROW_TOO_SHORT_ERROR.formatted(rowIndex + 1));
+        }
+    }
+
+    private static boolean readCell(CellStorage cells, int cell, char character) throws BoardParserException {
+        final char symbol = character < SYMBOL_RANGE ? character : INVALID_SYMBOL;
+        if (DIRECTIONS_BY_SYMBOL[symbol] != null) {
+            cells.set(cell, CellType.EMPTY);
+            return true;
+        }
+        final CellType cellType = CELL_TYPES_BY_SYMBOL[symbol];
+        if (cellType == null) {
+            throw new BoardParserException(INVALID_CELL_TYPE_ERROR.formatted(character));
+        }
+        cells.set(cell, cellType);
+        return false;
+    }
+
+    /**
+     * Collects the rows of a board whose number of rows is not known in advance,
+     * in packed blocks that each hold the same number of whole rows.
+     */
+    private static final class RowBlocks {
+        private final int columns;
+        private final int blockRows;
+        private final List<CellStorage> blocks = new ArrayList<>();
+
+        RowBlocks(int columns) {
+            this.columns = columns;
+            this.blockRows = Math.max(1, BLOCK_CELLS / Math.max(1, columns));
+        }
+
+        CellStorage blockOf(int row) {
+            final int block = row / blockRows;
+            while (blocks.size() <= block) {
+                blocks.add(CellStorageType.PACKED.create(blockRows, columns));
+            }
+            return blocks.get(block);
+        }
+
+        int cellOf(int row, int column) {
+            return (row % blockRows) * columns + column;
+        }
+
+        void copyTo(CellStorage cells) {
+            for (int row = 0; row < cells.rows(); row++) {
+                final CellStorage block = blockOf(row);
+                for (int column = 0; column < columns; column++) {
+                    cells.set(row * columns + column, block.get(cellOf(row, column)));
+                }
+            }
+        }
     }
 }
@@ -0,0 +1,109 @@
+package edu.kit.kastel.model.parsing;
+
+import edu.kit.kastel.model.exceptions.TreeParserException;
+import edu.kit.kastel.model.tree.TreeEdit;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Parses edit scripts for behavior trees into a batch of {@link TreeEdit edits}.
+ * Every non-blank line holds one edit in one of the forms
+ * {@code insert <anchor> <node>}, {@code append <parent> <node>}, {@code remove <node>},
+ * {@code replace <node> <node>} and {@code move <node> <anchor>},
+ * where new nodes are written like in an add sibling command, for example {@code M[move]}.
+ * @author ujsap
+ */
+public final class EditScriptParser {
+
+    private static final String INSERT_KEYWORD = "insert";
+    private static final String APPEND_KEYWORD = "append";
+    private static final String REMOVE_KEYWORD = "remove";
+    private static final String REPLACE_KEYWORD = "replace";
+    private static final String MOVE_KEYWORD = "move";
+    private static final String LINE_ERROR_FORMAT = "line %d: %s";
+    private static final String UNKNOWN_EDIT_ERROR = "unknown edit: %s";
+    private static final String INVALID_EDIT_ERROR = "invalid edit syntax: %s";
+
+    // regex for one or more whitespaces
+    private static final String WHITESPACE_REGEX = "\\s+";
+    private static final int LIMIT_TO_SPLIT = 3;
+    private static final int KEYWORD_INDEX = 0;
+    private static final int FIRST_ARGUMENT_INDEX = 1;
+    private static final int SECOND_ARGUMENT_INDEX = 2;
+    private static final int ONE_ARGUMENT = 2;
+    private static final int TWO_ARGUMENTS = 3;
+    private static final int FIRST_LINE_NUMBER = 1;
+
+    private final TreeParser treeParser;
+
+    /**
+     * Creates a new EditScriptParser.
+     * @param treeParser the parser used for the new nodes
+     */
+    public EditScriptParser(TreeParser treeParser) {
+        this.treeParser = treeParser;
+    }
+
+    /**
+     * Parses the given lines of an edit script.
+     * @param lines the lines of the script
+     * @return the edits in the order of the script
+     * @throws TreeParserException if a line is no valid edit, prefixed with its line number
+     */
+    public List<TreeEdit> parse(List<String> lines) throws TreeParserException {
+        List<TreeEdit> edits = new ArrayList<>();
+        for (int index = 0; index < lines.size(); index++) {
+            String line = lines.get(index).trim();
+            if (line.isEmpty()) {
+                continue;
+            }
+            try {
+                edits.add(parseEdit(line));
+            } catch (TreeParserException e) {
+                throw new TreeParserException(String.format(LINE_ERROR_FORMAT, index + FIRST_LINE_NUMBER,
+                        e.getMessage()));
+            }
+        }
+        return edits;
+    }
+
+    private TreeEdit parseEdit(String line) throws TreeParserException {
+        String[] parts = line.split(WHITESPACE_REGEX, LIMIT_TO_SPLIT);
+        return switch (parts[KEYWORD_INDEX]) {
+            case INSERT_KEYWORD -> {
+                requireArguments(parts, TWO_ARGUMENTS, line);
+                yield TreeEdit.insert(parts[FIRST_ARGUMENT_INDEX],
+                        treeParser.parseSingleNode(parts[SECOND_ARGUMENT_INDEX]));
+            }
+            case APPEND_KEYWORD -> {
+                requireArguments(parts, TWO_ARGUMENTS, line);
+                yield TreeEdit.append(parts[FIRST_ARGUMENT_INDEX],
+                        treeParser.parseSingleNode(parts[SECOND_ARGUMENT_INDEX]));
+            }
+            case REMOVE_KEYWORD -> {
+                requireArguments(parts, ONE_ARGUMENT, line);
+                yield TreeEdit.remove(parts[FIRST_ARGUMENT_INDEX]);
+            }
+            case REPLACE_KEYWORD -> {
+                requireArguments(parts, TWO_ARGUMENTS, line);
+                yield TreeEdit.replace(parts[FIRST_ARGUMENT_INDEX],
+                        treeParser.parseSingleNode(parts[SECOND_ARGUMENT_INDEX]));
+            }
+            case MOVE_KEYWORD -> {
+                requireArguments(parts, TWO_ARGUMENTS, line);
+                if (parts[SECOND_ARGUMENT_INDEX].split(WHITESPACE_REGEX).length != 1) {
+                    throw new TreeParserException(String.format(INVALID_EDIT_ERROR, line));
+                }
+                yield TreeEdit.move(parts[FIRST_ARGUMENT_INDEX], parts[SECOND_ARGUMENT_INDEX]);
+            }
+            default -> throw new TreeParserException(String.format(UNKNOWN_EDIT_ERROR, parts[KEYWORD_INDEX]));
+        };
+    }
+
+    private static void requireArguments(String[] parts, int length, String line) throws TreeParserException {
+        if (parts.length != length) {
+            throw new TreeParserException(String.format(INVALID_EDIT_ERROR, line));
+        }
+    }
+}
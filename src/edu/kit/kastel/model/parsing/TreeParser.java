@@ -1,6 +1,7 @@
 package edu.kit.kastel.model.parsing;
 
 import edu.kit.kastel.model.tree.BehaviorTree;
+import edu.kit.kastel.model.tree.TreeDefinition;
 import edu.kit.kastel.model.tree.nodes.Node;
 import edu.kit.kastel.model.tree.nodes.NodeType;
 import edu.kit.kastel.model.tree.nodes.composites.FallbackNode;
@@ -24,7 +25,11 @@
 import edu.kit.kastel.model.board.Position;
 import edu.kit.kastel.model.exceptions.TreeParserException;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.HexFormat;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -36,6 +41,9 @@
  * Each tree starts with the header flowchart TD, followed by edges
  * connecting nodes. Nodes can represent composites, actions, or conditions.
  * The parser validates structure and creates a behavior Tree for each ladybug.
+ * The structures of recently parsed files are cached by a digest of their content, so loading the same file again
+ * only creates new trees that share the already parsed {@link TreeDefinition definitions},
+ * while the text of the files is not kept.
  * @author ujsap
  */
 public final class TreeParser {
@@ -69,6 +77,9 @@ public final class TreeParser {
     private static final int INPUT_TO_MODEL_ADJUSTER = 1;
     private static final String STANDARD_EMPTY_TEXT_VALUE = "";
     private static final int FIRST_PART_INDEX = 0;
+    private static final int CACHED_FILES = 16;
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+    private static final char LINE_SEPARATOR = '\n';
 
     // regex for one or more whitespaces
     private static final String WHITESPACE_REGEX = "\\s+";
@@ -116,16 +127,57 @@ public final class TreeParser {
     private Node currentRoot;
     private boolean hasAction;
     private Map<String, Node> nodes;
+    private final Map<String, List<TreeDefinition>> parsedFiles =
+            new LinkedHashMap<>(CACHED_FILES, 1f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, List<TreeDefinition>> eldest) {
+                    return size() > CACHED_FILES;
+                }
+            };
 
     /**
      * Parses one or more behavior trees from the given lines.
+     * Each returned tree has its own execution state, but trees parsed from equal lines share their structure.
      * @param lines    the input text lines
      * @param ladybugs the ladybugs that will be assigned trees
      * @return a list of behavior trees
      * @throws TreeParserException if the input is invalid
      */
     public List<BehaviorTree> parse(List<String> lines, List<Ladybug> ladybugs) throws TreeParserException {
-        List<BehaviorTree> behaviorTrees = new ArrayList<>();
+        String digest = digestOf(lines);
+        List<TreeDefinition> definitions = parsedFiles.get(digest);
+        if (definitions == null) {
+            definitions = parseDefinitions(lines, ladybugs);
+            parsedFiles.put(digest, definitions);
+        } else if (definitions.size() > ladybugs.size()) {
+            throw new TreeParserException(LESS_LADYBUGS_THAN_TREES_ERROR);
+        }
+        List<BehaviorTree> behaviorTrees = new ArrayList<>(definitions.size());
+        for (TreeDefinition definition : definitions) {
+            behaviorTrees.add(new BehaviorTree(definition));
+        }
+        return behaviorTrees;
+    }
+
+    private static String digestOf(List<String> lines) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance(DIGEST_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform is required to support the algorithm
+            throw new IllegalStateException(e);
+        }
+        for (String line : lines) {
+            digest.update(line.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) LINE_SEPARATOR);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private List<TreeDefinition> parseDefinitions(List<String> lines, List<Ladybug> ladybugs)
+            throws TreeParserException {
+        List<TreeDefinition> behaviorTrees = new ArrayList<>();
+        treeCount = INITIAL_TREE_COUNT;
         boolean inTree = false;
         boolean edgeExists = false;
 
@@ -347,11 +399,11 @@ private static List<Position> parsePositions(String text) {
     }
 
 
-    private BehaviorTree createCurrentTree() throws TreeParserException {
+    private TreeDefinition createCurrentTree() throws TreeParserException {
         if (!hasAction) {
             throw new TreeParserException(CONTAINS_NO_ACTION_ERROR);
         }
-        return new BehaviorTree(currentRoot);
+        return new TreeDefinition(currentRoot);
     }
 
     /**
@@ -1,70 +1,195 @@
 package edu.kit.kastel.model.tree;
 
+import edu.kit.kastel.model.exceptions.TreeParserException;
 import edu.kit.kastel.model.tree.nodes.Node;
 import edu.kit.kastel.model.board.Board;
 import edu.kit.kastel.model.board.Ladybug;
-import edu.kit.kastel.model.board.Position;
 import edu.kit.kastel.model.tree.nodes.NodeStatus;
 import edu.kit.kastel.model.tree.nodes.NodeType;
+import edu.kit.kastel.model.tree.nodes.composites.CompositeNode;
 
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
-import java.util.Set;
 
 /**
  * Represents a behavior tree that controls the  movement of a {@link Ladybug}.
- * The tree has a root node, keeps saves of all nodes by their id,
- * and provides methods to tick the tree, reset it, and manipulate its execution flow.
+ * The structure of the tree is a {@link TreeDefinition}, which may be shared with the trees of other ladybugs,
+ * while the execution state of this tree is kept in its own {@link TreeState}.
+ * The tree provides methods to tick the tree, reset it, and manipulate its execution flow.
+ * Ticks are executed by the selected {@link TreeEngine}. With {@link TreeEngine#COMPILED}, the compiled form
+ * of the definition is executed by a {@link CompiledTree}; both engines work on the same state.
+ * With {@link TreeEngine#ADAPTIVE}, the tree is only lowered after the promotion threshold of ticks,
+ * and jumping or adding a node counts as an edit that starts the count again.
+ * A tick can also be split into {@link #planTick(Ladybug, Board)}, which only reads the board,
+ * and {@link #commitTick()}, which performs the action; a planned tick can be undone with {@link #rollback()}.
+ * A tick does not walk down from the root again when it can avoid it: while the state is resumable, the tick
+ * continues at the parent of the current node and unwinds upward through its ancestors, so its cost depends on
+ * the nodes it actually executes instead of the size of the tree.
+ * Both engines evaluate conditions through the {@link ConditionCache} of the tree.
  * @author ujsap
  */
 public class BehaviorTree {
-    private static final int INDEX_ADJUSTER = 1;
-    private final Node root;
-    private final Map<String, Node> nodesByID;
-    private Node currentNode;
+
+    /**
+     * The default number of ticks after which an adaptive tree is compiled.
+     */
+    public static final int DEFAULT_PROMOTION_THRESHOLD = 1000;
+    private TreeDefinition definition;
+    private TreeState state;
+    private TreeState checkpointState;
+    private ConditionCache conditionCache;
     private boolean jumpedSinceLastTick = false;
+    private TreeEngine engine = TreeEngine.INTERPRETED;
+    private CompiledTree compiledTree;
+    private boolean compiledTick;
+    private int promotionThreshold = DEFAULT_PROMOTION_THRESHOLD;
+    private int ticksSinceEdit;
+    private int checkpointTicksSinceEdit;
+    private final Trace trace = new Trace();
+    private final TickContext tickContext = new TickContext(trace);
 
     /**
      * Creates a new behavior tree with the given root node.
      * @param root the root node of the tree
      */
     public BehaviorTree(Node root) {
-        this.root = root;
-        this.nodesByID = new HashMap<>();
-        buildTreeByIndex(root);
-        currentNode = root;
+        this(new TreeDefinition(root));
     }
 
     /**
-     * Builds the internal node index starting from the root.
-     * @param root the root node
+     * Creates a new behavior tree with the given structure, starting in its initial state.
+     * @param definition the structure of the tree, which may be shared with other trees
      */
-    private void buildTreeByIndex(Node root) {
-        nodesByID.clear();
-        root.registerSubtree(nodesByID);
+    public BehaviorTree(TreeDefinition definition) {
+        this.definition = definition;
+        this.state = definition.newState();
+        this.conditionCache = new ConditionCache(definition);
     }
 
     /**
      * Executes one tick of the behavior tree for the given ladybug.
      * @param ladybug          the ladybug controlled by this tree
-     * @param board            the board state
-     * @param ladybugPositions the positions of all ladybugs
-     * @return a trace of the executed actions and conditions
-     */
-    public Trace tick(Ladybug ladybug, Board board, Set<Position> ladybugPositions) {
-        Trace trace = new Trace();
-        TickContext tickContext = new TickContext(board, ladybug, trace, ladybugPositions);
-        root.tick(tickContext);
+     * @param board            the board state including the positions of all ladybugs
+     * @return a trace of the executed actions and conditions, which is reused and overwritten by the next tick
+     */
+    public Trace tick(Ladybug ladybug, Board board) {
+        planTick(ladybug, board);
+        return commitTick();
+    }
+
+    /**
+     * Executes the first part of a tick, which walks the tree up to the action the tick performs.
+     * The walk only evaluates conditions, so it reads the board without changing it,
+     * and several trees can plan their ticks on the same board at the same time.
+     * @param ladybug the ladybug controlled by this tree
+     * @param board   the board state including the positions of all ladybugs
+     */
+    public void planTick(Ladybug ladybug, Board board) {
+        trace.setIds(definition.ids());
+        tickContext.begin(board, ladybug, state, conditionCache);
+        compiledTick = isCompiledTick();
+        if (compiledTick) {
+            if (compiledTree == null) {
+                compiledTree = new CompiledTree(definition.program(), state, conditionCache);
+            }
+            compiledTree.plan(ladybug, board, trace);
+            return;
+        }
+        Node root = definition.getRoot();
+        if (state.isResumable()) {
+            resume();
+        } else {
+            root.tick(tickContext);
+        }
         if (!tickContext.isStopRequested()) {
             resetTree();
             root.tick(tickContext);
         }
-        currentNode.tick(tickContext);
+    }
+
+    private void resume() {
+        Node root = definition.getRoot();
+        Node child = definition.getNode(state.getCurrent());
+        while (child != root && !tickContext.isStopRequested()) {
+            CompositeNode parent = (CompositeNode) child.getParent();
+            parent.resume(tickContext, definition.positionOf(child.getIndex()));
+            child = parent;
+        }
+    }
+
+    /**
+     * Executes the second part of a tick planned by {@link #planTick(Ladybug, Board)}, which performs the action.
+     * @return a trace of the executed actions and conditions, which is reused and overwritten by the next tick
+     */
+    public Trace commitTick() {
+        boolean suspended = state.isResumable();
+        if (compiledTick) {
+            compiledTree.commit();
+        } else {
+            definition.getNode(state.getCurrent()).tick(tickContext);
+        }
+        if (!suspended) {
+            // the planned walk did not stop, so the current node may be a composite that
+            // suspended the tick without its ancestors running, and the next tick must start at the root
+            state.endSuspension();
+        }
         jumpedSinceLastTick = false;
         return trace;
     }
 
+    /**
+     * Saves the execution state of this tree, so a tick planned afterwards can be undone by {@link #rollback()}.
+     */
+    public void checkpoint() {
+        if (checkpointState == null) {
+            checkpointState = definition.newState();
+        }
+        checkpointState.copyFrom(state);
+        checkpointTicksSinceEdit = ticksSinceEdit;
+    }
+
+    /**
+     * Restores the execution state saved by the latest {@link #checkpoint()}.
+     * The tree must not have been edited since the checkpoint.
+     */
+    public void rollback() {
+        state.copyFrom(checkpointState);
+        ticksSinceEdit = checkpointTicksSinceEdit;
+    }
+
+    /**
+     * Ends the suspension of the state, so the next tick walks down from the root even if it could resume.
+     * Both ways lead to the same tick, which tests check by ending the suspension before every tick.
+     * @return true if the next tick would have resumed, false otherwise
+     */
+    boolean endSuspension() {
+        boolean resumable = state.isResumable();
+        state.endSuspension();
+        return resumable;
+    }
+
+    /**
+     * Checks whether this tree contains conditions that ask for paths on the board.
+     * The ticks of other trees only depend on the cell in front of their ladybug.
+     * @return true if a tick may depend on any cell of the board, false otherwise
+     */
+    public boolean readsPaths() {
+        return definition.readsPaths();
+    }
+
+    private boolean isCompiledTick() {
+        return switch (engine) {
+            case INTERPRETED -> false;
+            case COMPILED -> true;
+            case ADAPTIVE -> {
+                if (ticksSinceEdit < promotionThreshold) {
+                    ticksSinceEdit++;
+                    yield false;
+                }
+                yield true;
+            }
+        };
+    }
+
     /**
      * Gets the next node which is to be executed.
      * In case last executed node was an action and the last child of a composite, then returns the last executed.
@@ -75,15 +200,15 @@ public Node head() {
     }
 
     private Node peekNext() {
+        Node currentNode = definition.getNode(state.getCurrent());
         if (!currentNode.getNodeType().isAction()) {
-            return root;
+            return definition.getRoot();
         }
-        List<Node> children = currentNode.getParent().getChildren();
-        int childIndex = children.indexOf(currentNode);
-        if (childIndex == children.size() - INDEX_ADJUSTER || jumpedSinceLastTick) {
+        int next = definition.nextSibling(currentNode.getIndex());
+        if (next == TreeDefinition.NO_NODE || jumpedSinceLastTick) {
             return currentNode;
         } else {
-            return children.get(childIndex + INDEX_ADJUSTER);
+            return definition.getNode(next);
         }
     }
 
@@ -92,25 +217,27 @@ private Node peekNext() {
      * @param nodeID the id of the target node
      */
     public void jumpTo(String nodeID) {
-        Node target = nodesByID.get(nodeID);
-        if (this.root == target) {
+        markEdited();
+        Node target = definition.findNodeByID(nodeID);
+        if (definition.getRoot() == target) {
             resetTree();
             return;
         }
         handleSkippedNodes(target);
-        currentNode = target;
+        state.setCurrent(target.getIndex());
         jumpedSinceLastTick = true;
     }
 
     private void handleSkippedNodes(Node target) {
+        Node root = definition.getRoot();
         Node parent = target.getParent();
         if (parent == root) {
             for (Node child : root.getChildren()) {
                 if (child == target) {
-                    child.setNodeStatus(NodeStatus.ENTRY);
+                    child.setNodeStatus(state, NodeStatus.ENTRY);
                     break;
                 }
-                child.setNodeStatus(simulateStatusForSkipped(root));
+                child.setNodeStatus(state, simulateStatusForSkipped(root));
             }
             return;
         }
@@ -119,7 +246,7 @@ private void handleSkippedNodes(Node target) {
             if (child == target) {
                 break;
             }
-            child.setNodeStatus(simulateStatusForSkipped(parent));
+            child.setNodeStatus(state, simulateStatusForSkipped(parent));
         }
     }
     private NodeStatus simulateStatusForSkipped(Node parent) {
@@ -132,28 +259,47 @@ private NodeStatus simulateStatusForSkipped(Node parent) {
 
     /**
      * Resets the entire behavior tree to its initial state.
+     * The statuses are stamped with an epoch, so this takes constant time regardless of the tree size.
      */
     public void resetTree() {
-        resetSubtree(root);
+        state.reset();
     }
 
     /**
-     * Updates the current node pointer.
-     * @param newCurrent the new current node
+     * Gets the engine that executes the ticks of this tree.
+     * @return the tree engine
      */
-    public void setCurrentNode(Node newCurrent) {
-        this.currentNode = newCurrent;
+    public TreeEngine getEngine() {
+        return engine;
     }
 
     /**
-     * Resets a subtree starting at the given node.
-     * @param node the node to reset
+     * Sets how much of each tick is recorded in the returned trace.
+     * @param traceLevel the trace level
      */
-    private void resetSubtree(Node node) {
-        node.resetState();
-        for (Node child : node.getChildren()) {
-            resetSubtree(child);
-        }
+    public void setTraceLevel(TraceLevel traceLevel) {
+        trace.setLevel(traceLevel);
+    }
+
+    /**
+     * Sets the number of ticks after which a tree run by {@link TreeEngine#ADAPTIVE} is compiled.
+     * @param promotionThreshold the number of ticks without edits, zero compiles the tree on the first tick
+     */
+    public void setPromotionThreshold(int promotionThreshold) {
+        this.promotionThreshold = promotionThreshold;
+    }
+
+    /**
+     * Selects the engine that executes the ticks of this tree.
+     * The execution state of the tree is kept when switching engines.
+     * @param engine the tree engine
+     */
+    public void setEngine(TreeEngine engine) {
+        this.engine = engine;
+    }
+
+    private void markEdited() {
+        ticksSinceEdit = 0;
     }
 
     /**
@@ -161,19 +307,46 @@ private void resetSubtree(Node node) {
      * @return the root id
      */
     public String getRootID() {
-        return root.getId();
+        return definition.getRoot().getId();
     }
 
     /**
      * Adds a sibling node next to an existing node.
-     * @param parent     the parent of the existing node
+     * The shared definition is not changed; this tree switches to an edited copy and keeps its state.
+     * This takes time linear in the size of the tree, see {@link TreeDefinition#withSibling(String, Node)}.
      * @param existingID the id of the existing node
      * @param newNode    the new node to insert
      */
-    public void addSibling(Node parent, String existingID, Node newNode) {
-        Node existing = nodesByID.get(existingID);
-        parent.insertChildAfter(existing, newNode);
-        newNode.registerSubtree(nodesByID);
+    public void addSibling(String existingID, Node newNode) {
+        switchTo(definition.withSibling(existingID, newNode));
+    }
+
+    /**
+     * Applies a batch of structural edits, either all of them or none.
+     * Like {@link #addSibling(String, Node)}, this tree switches to an edited copy of its definition,
+     * which is built once for the whole batch. Nodes taken over keep their status.
+     * @param edits the edits to apply in order
+     * @throws TreeParserException if an edit is invalid or the edited tree contains no action
+     */
+    public void applyEdits(List<TreeEdit> edits) throws TreeParserException {
+        switchTo(definition.withEdits(edits));
+    }
+
+    private void switchTo(TreeDefinition edited) {
+        markEdited();
+        state = edited.adoptState(state);
+        definition = edited;
+        conditionCache = conditionCache.forEditedTree(edited);
+        compiledTree = null;
+        checkpointState = null;
+    }
+
+    /**
+     * Gets the cache of condition results of this tree, whose counters tell how often it was hit.
+     * @return the condition cache
+     */
+    public ConditionCache getConditionCache() {
+        return conditionCache;
     }
 
     /**
@@ -182,7 +355,7 @@ public void addSibling(Node parent, String existingID, Node newNode) {
      * @return the node
      */
     public Node findNodeByID(String id) {
-        return nodesByID.get(id);
+        return definition.findNodeByID(id);
     }
 
     /**
@@ -191,11 +364,6 @@ public Node findNodeByID(String id) {
      * @return true if it exists, false otherwise
      */
     public boolean hasNode(String nodeID) {
-        for (Node node: nodesByID.values()) {
-            if (node.getId().equals(nodeID)) {
-                return true;
-            }
-        }
-        return false;
+        return definition.hasNode(nodeID);
     }
 }
@@ -0,0 +1,140 @@
+package edu.kit.kastel.model.tree;
+
+import edu.kit.kastel.model.board.Board;
+import edu.kit.kastel.model.tree.nodes.Node;
+import edu.kit.kastel.model.tree.nodes.composites.ParallelNode;
+import edu.kit.kastel.model.tree.nodes.leafs.actions.ActionNode;
+import edu.kit.kastel.model.tree.nodes.leafs.actions.FlyNode;
+import edu.kit.kastel.model.tree.nodes.leafs.conditions.ConditionNode;
+import edu.kit.kastel.model.tree.nodes.leafs.conditions.ExistsPathBetweenNode;
+import edu.kit.kastel.model.tree.nodes.leafs.conditions.ExistsPathToNode;
+
+import java.util.Arrays;
+
+/**
+ * A {@link TreeDefinition} lowered into flat arrays, indexed by the node indices of the definition,
+ * which are also the indices of the statuses in a {@link TreeState}.
+ * Every node is described by an opcode, the index of its parent, its first child and its next sibling,
+ * and its parameters.
+ * The program holds no execution state, so it is shared by all trees of its definition;
+ * {@link CompiledTree} executes it on the state of one tree.
+ * @author ujsap
+ */
+final class CompiledProgram {
+
+    static final byte SEQUENCE = 0;
+    static final byte FALLBACK = 1;
+    static final byte PARALLEL = 2;
+    static final byte MOVE = 3;
+    static final byte TURN_LEFT = 4;
+    static final byte TURN_RIGHT = 5;
+    static final byte TAKE_LEAF = 6;
+    static final byte PLACE_LEAF = 7;
+    static final byte FLY = 8;
+    static final byte AT_EDGE = 9;
+    static final byte LEAF_FRONT = 10;
+    static final byte TREE_FRONT = 11;
+    static final byte MUSHROOM_FRONT = 12;
+    static final byte EXISTS_PATH_TO = 13;
+    static final byte EXISTS_PATH_BETWEEN = 14;
+    static final int ROOT = 0;
+    static final int NONE = -1;
+    private static final int NO_PARAMETER = 0;
+
+    final NodeLabel[] labels;
+    final byte[] opcodes;
+    final int[] parents;
+    final int[] firstChildren;
+    final int[] nextSiblings;
+    final int[] thresholds;
+    final long[] firstParameters;
+    final long[] secondParameters;
+
+    private CompiledProgram(int size) {
+        labels = new NodeLabel[size];
+        opcodes = new byte[size];
+        parents = new int[size];
+        firstChildren = new int[size];
+        nextSiblings = new int[size];
+        thresholds = new int[size];
+        firstParameters = new long[size];
+        secondParameters = new long[size];
+        Arrays.fill(firstChildren, NONE);
+        Arrays.fill(nextSiblings, NONE);
+    }
+
+    /**
+     * Lowers the given tree.
+     * @param definition the tree to lower
+     * @return the compiled program
+     */
+    static CompiledProgram compile(TreeDefinition definition) {
+        CompiledProgram program = new CompiledProgram(definition.size());
+        for (int index = 0; index < definition.size(); index++) {
+            program.lower(definition.getNode(index));
+        }
+        return program;
+    }
+
+    private void lower(Node node) {
+        int index = node.getIndex();
+        labels[index] = node.getLabel();
+        firstParameters[index] = NO_PARAMETER;
+        secondParameters[index] = NO_PARAMETER;
+        opcodes[index] = switch (node.getNodeType()) {
+            case SEQUENCE -> SEQUENCE;
+            case FALLBACK -> FALLBACK;
+            case PARALLEL -> {
+                thresholds[index] = ((ParallelNode) node).getThreshold();
+                yield PARALLEL;
+            }
+            case ACTION -> lowerAction(index, (ActionNode) node);
+            case CONDITION -> lowerCondition(index, (ConditionNode) node);
+        };
+
+        int previous = NONE;
+        for (Node child : node.getChildren()) {
+            int childIndex = child.getIndex();
+            parents[childIndex] = index;
+            if (previous == NONE) {
+                firstChildren[index] = childIndex;
+            } else {
+                nextSiblings[previous] = childIndex;
+            }
+            previous = childIndex;
+        }
+    }
+
+    private byte lowerAction(int index, ActionNode node) {
+        return switch (node.getActionType()) {
+            case MOVE -> MOVE;
+            case TURN_LEFT -> TURN_LEFT;
+            case TURN_RIGHT -> TURN_RIGHT;
+            case TAKE_LEAF -> TAKE_LEAF;
+            case PLACE_LEAF -> PLACE_LEAF;
+            case FLY -> {
+                firstParameters[index] = Board.pack(((FlyNode) node).getGoal());
+                yield FLY;
+            }
+        };
+    }
+
+    private byte lowerCondition(int index, ConditionNode node) {
+        return switch (node.getConditionType()) {
+            case AT_EDGE -> AT_EDGE;
+            case LEAF_FRONT -> LEAF_FRONT;
+            case TREE_FRONT -> TREE_FRONT;
+            case MUSHROOM_FRONT -> MUSHROOM_FRONT;
+            case EXISTS_PATH_TO -> {
+                firstParameters[index] = Board.pack(((ExistsPathToNode) node).getGoal());
+                yield EXISTS_PATH_TO;
+            }
+            case EXISTS_PATH_BETWEEN -> {
+                ExistsPathBetweenNode between = (ExistsPathBetweenNode) node;
+                firstParameters[index] = Board.pack(between.getStart());
+                secondParameters[index] = Board.pack(between.getGoal());
+                yield EXISTS_PATH_BETWEEN;
+            }
+        };
+    }
+}
@@ -0,0 +1,271 @@
+package edu.kit.kastel.model.tree;
+
+import edu.kit.kastel.model.board.Board;
+import edu.kit.kastel.model.board.CellType;
+import edu.kit.kastel.model.board.Ladybug;
+import edu.kit.kastel.model.tree.nodes.Node;
+import edu.kit.kastel.model.tree.nodes.NodeStatus;
+
+import static edu.kit.kastel.model.tree.CompiledProgram.AT_EDGE;
+import static edu.kit.kastel.model.tree.CompiledProgram.EXISTS_PATH_BETWEEN;
+import static edu.kit.kastel.model.tree.CompiledProgram.EXISTS_PATH_TO;
+import static edu.kit.kastel.model.tree.CompiledProgram.FALLBACK;
+import static edu.kit.kastel.model.tree.CompiledProgram.FLY;
+import static edu.kit.kastel.model.tree.CompiledProgram.LEAF_FRONT;
+import static edu.kit.kastel.model.tree.CompiledProgram.MOVE;
+import static edu.kit.kastel.model.tree.CompiledProgram.MUSHROOM_FRONT;
+import static edu.kit.kastel.model.tree.CompiledProgram.NONE;
+import static edu.kit.kastel.model.tree.CompiledProgram.PARALLEL;
+import static edu.kit.kastel.model.tree.CompiledProgram.PLACE_LEAF;
+import static edu.kit.kastel.model.tree.CompiledProgram.ROOT;
+import static edu.kit.kastel.model.tree.CompiledProgram.SEQUENCE;
+import static edu.kit.kastel.model.tree.CompiledProgram.TAKE_LEAF;
+import static edu.kit.kastel.model.tree.CompiledProgram.TREE_FRONT;
+import static edu.kit.kastel.model.tree.CompiledProgram.TURN_LEFT;
+import static edu.kit.kastel.model.tree.CompiledProgram.TURN_RIGHT;
+
+/**
+ * Executes a {@link CompiledProgram} on the {@link TreeState} of one behavior tree.
+ * A tick touches no node objects and no child lists, only the flat arrays of the program and the tree state.
+ * The interpreter mirrors the semantics of the composite nodes exactly, so it produces the same trace
+ * and performs the same actions as ticking the linked {@link Node} objects.
+ * Both engines work on the same state, so a tree can switch between them at any time,
+ * and both resume a resumable state at the parent of the current node and share the cached condition results.
+ * @author ujsap
+ */
+final class CompiledTree {
+
+    private static final byte FIRST_ACTION = MOVE;
+    private static final byte LAST_ACTION = FLY;
+    private static final byte SUCCESS = (byte) NodeStatus.SUCCESS.ordinal();
+    private static final byte FAILURE = (byte) NodeStatus.FAILURE.ordinal();
+    private static final byte RUNNING = (byte) NodeStatus.RUNNING.ordinal();
+    private static final byte ENTRY = (byte) NodeStatus.ENTRY.ordinal();
+
+    private final NodeLabel[] labels;
+    private final byte[] opcodes;
+    private final int[] parents;
+    private final int[] firstChildren;
+    private final int[] nextSiblings;
+    private final int[] thresholds;
+    private final long[] firstParameters;
+    private final long[] secondParameters;
+    private final TreeState state;
+    private final ConditionCache conditionCache;
+    private boolean stopRequested;
+    private Ladybug ladybug;
+    private Board board;
+    private Trace trace;
+
+    /**
+     * Creates a new executor for the given program, which works on the given state.
+     * @param program        the compiled program of the tree
+     * @param state          the execution state of the tree
+     * @param conditionCache the cached condition results of the tree
+     */
+    CompiledTree(CompiledProgram program, TreeState state, ConditionCache conditionCache) {
+        labels = program.labels;
+        opcodes = program.opcodes;
+        parents = program.parents;
+        firstChildren = program.firstChildren;
+        nextSiblings = program.nextSiblings;
+        thresholds = program.thresholds;
+        firstParameters = program.firstParameters;
+        secondParameters = program.secondParameters;
+        this.state = state;
+        this.conditionCache = conditionCache;
+    }
+
+    /**
+     * Executes one tick, following the same steps as {@link BehaviorTree#tick(Ladybug, Board)}.
+     * @param ladybug the ladybug controlled by this tree
+     * @param board   the board state
+     * @param trace   the trace that records the execution events
+     */
+    void tick(Ladybug ladybug, Board board, Trace trace) {
+        plan(ladybug, board, trace);
+        commit();
+    }
+
+    /**
+     * Executes the first part of a tick, which walks the tree up to the node the tick continues with.
+     * The walk only evaluates conditions, so it reads the board without changing it.
+     * @param ladybug the ladybug controlled by this tree
+     * @param board   the board state
+     * @param trace   the trace that records the execution events
+     * @see BehaviorTree#planTick(Ladybug, Board)
+     */
+    void plan(Ladybug ladybug, Board board, Trace trace) {
+        this.ladybug = ladybug;
+        this.board = board;
+        this.trace = trace;
+        stopRequested = false;
+        if (state.isResumable()) {
+            resume();
+        } else {
+            run(ROOT);
+        }
+        if (!stopRequested) {
+            state.reset();
+            run(ROOT);
+        }
+    }
+
+    /**
+     * Executes the second part of a tick, which runs the node found by {@link #plan(Ladybug, Board, Trace)}.
+     */
+    void commit() {
+        run(state.getCurrent());
+        this.ladybug = null;
+        this.board = null;
+        this.trace = null;
+    }
+
+    private void resume() {
+        int child = state.getCurrent();
+        while (child != ROOT && !stopRequested) {
+            int parent = parents[child];
+            switch (opcodes[parent]) {
+                case SEQUENCE -> continueLinear(parent, child, FAILURE, SUCCESS);
+                case FALLBACK -> continueLinear(parent, child, SUCCESS, FAILURE);
+                default -> continueParallel(parent, child);
+            }
+            child = parent;
+        }
+    }
+
+    private byte run(int node) {
+        return switch (opcodes[node]) {
+            case SEQUENCE -> runLinear(node, FAILURE, SUCCESS);
+            case FALLBACK -> runLinear(node, SUCCESS, FAILURE);
+            case PARALLEL -> runParallel(node);
+            default -> exit(node, isAction(opcodes[node]) ? evaluate(node) : evaluateCondition(node));
+        };
+    }
+
+    private byte runLinear(int node, byte breakOn, byte defaultIfNoBreak) {
+        ensureEntry(node);
+        return continueLinear(node, firstChildren[node], breakOn, defaultIfNoBreak);
+    }
+
+    private byte continueLinear(int node, int first, byte breakOn, byte defaultIfNoBreak) {
+        for (int child = first; child != NONE; child = nextSiblings[child]) {
+            byte preStatus = state.status(child);
+            if (preStatus == breakOn) {
+                return exit(node, preStatus);
+            }
+            if (isFinished(preStatus)) {
+                continue;
+            }
+            if (isAction(opcodes[child])) {
+                state.suspendAt(child);
+                stopRequested = true;
+                return RUNNING;
+            }
+            run(child);
+            if (stopRequested) {
+                return RUNNING;
+            }
+            if (state.status(child) == breakOn) {
+                return exit(node, breakOn);
+            }
+        }
+        return exit(node, defaultIfNoBreak);
+    }
+
+    private byte runParallel(int node) {
+        ensureEntry(node);
+        return continueParallel(node, firstChildren[node]);
+    }
+
+    private byte continueParallel(int node, int first) {
+        for (int child = first; child != NONE; child = nextSiblings[child]) {
+            if (isFinished(state.status(child))) {
+                continue;
+            }
+            if (isAction(opcodes[child])) {
+                state.suspendAt(child);
+                stopRequested = true;
+                return RUNNING;
+            }
+            run(child);
+            if (stopRequested) {
+                return RUNNING;
+            }
+        }
+        int successes = 0;
+        for (int child = firstChildren[node]; child != NONE; child = nextSiblings[child]) {
+            if (state.status(child) == SUCCESS) {
+                successes++;
+            }
+        }
+        return exit(node, successes < thresholds[node] ? FAILURE : SUCCESS);
+    }
+
+    private byte evaluateCondition(int node) {
+        if (conditionCache.contains(node, board, ladybug)) {
+            return conditionCache.get(node) ? SUCCESS : FAILURE;
+        }
+        byte result = evaluate(node);
+        conditionCache.put(node, board, ladybug, result == SUCCESS);
+        return result;
+    }
+
+    private byte evaluate(int node) {
+        boolean result = switch (opcodes[node]) {
+            case MOVE -> ladybug.moveForward(board);
+            case TURN_LEFT -> {
+                ladybug.turnLeft();
+                yield true;
+            }
+            case TURN_RIGHT -> {
+                ladybug.turnRight();
+                yield true;
+            }
+            case TAKE_LEAF -> ladybug.takeLeafFront(board);
+            case PLACE_LEAF -> ladybug.placeLeafFront(board);
+            case FLY -> ladybug.fly(board, firstParameters[node]);
+            case AT_EDGE -> board.isAtEdge(ladybug.getPackedPosition());
+            case LEAF_FRONT -> isFrontCell(CellType.LEAF);
+            case TREE_FRONT -> isFrontCell(CellType.TREE);
+            case MUSHROOM_FRONT -> isFrontCell(CellType.MUSHROOM);
+            case EXISTS_PATH_TO -> board.getPathQueryCache()
+                    .existsPath(ladybug.getPackedPosition(), firstParameters[node]);
+            case EXISTS_PATH_BETWEEN -> board.getPathQueryCache()
+                    .existsPath(firstParameters[node], secondParameters[node]);
+            default -> throw new IllegalStateException();
+        };
+        return result ? SUCCESS : FAILURE;
+    }
+
+    private boolean isFrontCell(CellType expected) {
+        long front = ladybug.getPackedCellInFront();
+        return board.isWithinBounds(front) && board.getCellType(front) == expected;
+    }
+
+    private void ensureEntry(int node) {
+        if (state.status(node) == ENTRY) {
+            state.setStatus(node, RUNNING);
+            if (trace.records(isAction(opcodes[node]))) {
+                trace.addEntry(ladybug.getId(), node, labels[node], TraceEvent.ENTRY);
+            }
+        }
+    }
+
+    private byte exit(int node, byte status) {
+        state.setStatus(node, status);
+        if (trace.records(isAction(opcodes[node]))) {
+            trace.addEntry(ladybug.getId(), node, labels[node],
+                    status == SUCCESS ? TraceEvent.SUCCESS : TraceEvent.FAILURE);
+        }
+        return status;
+    }
+
+    private static boolean isFinished(byte status) {
+        return status == SUCCESS || status == FAILURE;
+    }
+
+    private static boolean isAction(byte opcode) {
+        return opcode >= FIRST_ACTION && opcode <= LAST_ACTION;
+    }
+}
@@ -0,0 +1,140 @@
+package edu.kit.kastel.model.tree;
+
+import edu.kit.kastel.model.board.Board;
+import edu.kit.kastel.model.board.Direction;
+import edu.kit.kastel.model.board.Ladybug;
+import edu.kit.kastel.model.tree.nodes.leafs.conditions.ConditionReadSet;
+
+import java.util.Arrays;
+
+/**
+ * Caches the results of the conditions of one behavior tree, indexed by the node index.
+ * Each result is stored together with what its {@link ConditionReadSet read set} looked like:
+ * the board version it was computed at and the position and direction of the ladybug.
+ * A result stays valid until the ladybug moves or turns, as far as the condition depends on it,
+ * or until the board reports a change in the cells the condition read,
+ * so repeated evaluations within and across ticks become lookups.
+ * The cache belongs to a single tree, so several trees can use their caches while the board is read concurrently.
+ * It counts its hits and misses over the whole life of the tree, including edits.
+ * <p>
+ * Path conditions are also cached per board by the {@link edu.kit.kastel.model.board.PathQueryCache},
+ * and both caches are needed. This cache only serves the node that computed a result, but it works while the board
+ * is read concurrently, when the board bypasses its own cache, and a hit costs no hashing.
+ * The board cache is shared by all nodes and trees asking the same query, so it serves what this cache misses:
+ * the same path asked by another node or ladybug, or again after the ladybug moved back to a cell.
+ * @author ujsap
+ */
+public final class ConditionCache {
+    private static final long NO_VERSION = -1;
+    private final ConditionReadSet[] readSets;
+    private final long[] versions;
+    private final long[] positions;
+    private final Direction[] directions;
+    private final long[] cells;
+    private final boolean[] results;
+    private Board board;
+    private long hits;
+    private long misses;
+
+    /**
+     * Creates an empty cache for the conditions of the given tree.
+     * @param definition the structure of the tree
+     */
+    ConditionCache(TreeDefinition definition) {
+        readSets = definition.readSets();
+        versions = new long[readSets.length];
+        positions = new long[readSets.length];
+        directions = new Direction[readSets.length];
+        cells = new long[readSets.length];
+        results = new boolean[readSets.length];
+        Arrays.fill(versions, NO_VERSION);
+    }
+
+    /**
+     * Creates an empty cache for the given edited version of the tree, which continues the counters of this cache.
+     * The cached results are dropped, because the node indices of the edited tree differ.
+     * @param edited the structure of the edited tree
+     * @return the new cache
+     */
+    ConditionCache forEditedTree(TreeDefinition edited) {
+        ConditionCache cache = new ConditionCache(edited);
+        cache.hits = hits;
+        cache.misses = misses;
+        return cache;
+    }
+
+    /**
+     * Checks whether the cache holds a valid result for the condition with the given index.
+     * @param index   the node index of the condition
+     * @param board   the board the condition is evaluated on
+     * @param ladybug the ladybug the condition is evaluated for
+     * @return true if nothing the cached result read has changed since, false otherwise
+     */
+    public boolean contains(int index, Board board, Ladybug ladybug) {
+        if (board != this.board || versions[index] == NO_VERSION || !isValid(index, board, ladybug)) {
+            misses++;
+            return false;
+        }
+        hits++;
+        return true;
+    }
+
+    private boolean isValid(int index, Board board, Ladybug ladybug) {
+        long version = versions[index];
+        return switch (readSets[index]) {
+            case POSITION -> positions[index] == ladybug.getPackedPosition();
+            case FRONT_CELL -> positions[index] == ladybug.getPackedPosition()
+                    && directions[index] == ladybug.getDirection()
+                    && board.getLastChange(cells[index]) <= version;
+            case EMPTY_CELLS -> board.getEmptyCellsVersion() <= version;
+            case POSITION_AND_EMPTY_CELLS -> positions[index] == ladybug.getPackedPosition()
+                    && board.getEmptyCellsVersion() <= version;
+        };
+    }
+
+    /**
+     * Gets the cached result of the condition with the given index, which must be valid.
+     * @param index the node index of the condition
+     * @return the cached result
+     * @see #contains(int, Board, Ladybug)
+     */
+    public boolean get(int index) {
+        return results[index];
+    }
+
+    /**
+     * Stores the result of the condition with the given index, just evaluated on the given board.
+     * Switching to another board drops all results cached for the previous one.
+     * @param index   the node index of the condition
+     * @param board   the board the condition was evaluated on
+     * @param ladybug the ladybug the condition was evaluated for
+     * @param result  the result of the condition
+     */
+    public void put(int index, Board board, Ladybug ladybug, boolean result) {
+        if (board != this.board) {
+            Arrays.fill(versions, NO_VERSION);
+            this.board = board;
+        }
+        versions[index] = board.getVersion();
+        positions[index] = ladybug.getPackedPosition();
+        directions[index] = ladybug.getDirection();
+        cells[index] = ladybug.getPackedCellInFront();
+        results[index] = result;
+    }
+
+    /**
+     * Returns how many evaluations were answered from the cache.
+     * @return the number of cache hits
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * Returns how many evaluations had to be computed.
+     * @return the number of cache misses
+     */
+    public long getMisses() {
+        return misses;
+    }
+}
@@ -0,0 +1,94 @@
+package edu.kit.kastel.model.tree;
+
+import edu.kit.kastel.model.board.Position;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Immutable label of a behavior tree node, as it appears in a {@link Trace}.
+ * A label consists of the specific type name of the node and the positions the node refers to.
+ * Both textual forms, with model coordinates and with the one-based view coordinates,
+ * are computed once when the node is created, so recording and printing a trace never formats coordinates.
+ * Labels without positions are interned, so all nodes of the same type share one label.
+ * @author ujsap
+ */
+public final class NodeLabel {
+    private static final Map<String, NodeLabel> INTERNED = new ConcurrentHashMap<>();
+    private static final char NAME_SEPARATOR = ' ';
+    private static final char COORDINATES_SEPARATOR = ',';
+    private static final int VIEW_INDEX_SHIFT = 1;
+    private final String name;
+    private final List<Position> positions;
+    private final String text;
+    private final String viewText;
+
+    private NodeLabel(String name, List<Position> positions) {
+        this.name = name;
+        this.positions = positions;
+        this.text = format(name, positions, 0);
+        this.viewText = positions.isEmpty() ? text : format(name, positions, VIEW_INDEX_SHIFT);
+    }
+
+    /**
+     * Returns the label for a node of the given type name that refers to the given positions.
+     * @param name      the specific type name of the node
+     * @param positions the positions the node refers to, in model coordinates
+     * @return the label, which is shared between all calls if there are no positions
+     */
+    public static NodeLabel of(String name, Position... positions) {
+        if (positions.length == 0) {
+            return INTERNED.computeIfAbsent(name, key -> new NodeLabel(key, List.of()));
+        }
+        return new NodeLabel(name, List.of(positions));
+    }
+
+    /**
+     * Gets the specific type name of the node.
+     * @return the type name
+     */
+    public String name() {
+        return name;
+    }
+
+    /**
+     * Gets the positions the node refers to.
+     * @return an unmodifiable list of positions in model coordinates
+     */
+    public List<Position> positions() {
+        return positions;
+    }
+
+    /**
+     * Gets the label with model coordinates, for example {@code fly 2,3}.
+     * @return the label text in model coordinates
+     */
+    public String text() {
+        return text;
+    }
+
+    /**
+     * Gets the label with view coordinates, for example {@code fly 3,4}.
+     * @return the label text in view coordinates
+     */
+    public String viewText() {
+        return viewText;
+    }
+
+    private static String format(String name, List<Position> positions, int shift) {
+        StringBuilder builder = new StringBuilder(name);
+        for (Position position : positions) {
+            builder.append(NAME_SEPARATOR)
+                    .append(position.column() + shift)
+                    .append(COORDINATES_SEPARATOR)
+                    .append(position.row() + shift);
+        }
+        return builder.toString();
+    }
+
+    @Override
+    public String toString() {
+        return text;
+    }
+}
@@ -2,35 +2,46 @@
 
 import edu.kit.kastel.model.board.Board;
 import edu.kit.kastel.model.board.Ladybug;
-import edu.kit.kastel.model.board.Position;
-import java.util.Set;
 
 /**
  * Contains all relevant information for a single tick of the behavior tree.
- * Provides access to the board, the controlled {@link Ladybug}, the positions of all ladybugs
- * and the {@link Trace} for logging events. It also allows requesting an early stop of the current tick.
+ * Provides access to the board including the positions of all ladybugs, the controlled {@link Ladybug},
+ * the {@link TreeState} and {@link ConditionCache} of the ticked tree and the {@link Trace} for logging events.
+ * It also allows requesting an early stop of the current tick.
+ * A context is owned by one behavior tree and reused for all of its ticks,
+ * see {@link #begin(Board, Ladybug, TreeState, ConditionCache)}.
  * @author ujsap
  */
 public class TickContext {
-    private final Board board;
-    private final Ladybug ladybug;
     private final Trace trace;
-    private final Set<Position> ladybugPositions;
+    private Board board;
+    private Ladybug ladybug;
+    private TreeState state;
+    private ConditionCache conditionCache;
     private boolean stopRequested;
 
     /**
-     * Creates a new tick context.
-     * @param board            the board state
-     * @param ladybug          the ladybug controlled during this tick
-     * @param trace            the trace that records execution events
-     * @param ladybugPositions the positions of all ladybugs on the board
+     * Creates a new tick context that records into the given trace.
+     * @param trace the trace that records execution events
      */
-    public TickContext(Board board, Ladybug ladybug, Trace trace, Set<Position> ladybugPositions) {
-        this.board = board;
+    public TickContext(Trace trace) {
         this.trace = trace;
+    }
+
+    /**
+     * Prepares this context for a new tick by clearing the trace and the stop request.
+     * @param board          the board state
+     * @param ladybug        the ladybug controlled during this tick
+     * @param state          the execution state of the ticked tree
+     * @param conditionCache the cached condition results of the ticked tree
+     */
+    public void begin(Board board, Ladybug ladybug, TreeState state, ConditionCache conditionCache) {
+        this.board = board;
         this.ladybug = ladybug;
-        this.ladybugPositions = Set.copyOf(ladybugPositions);
+        this.state = state;
+        this.conditionCache = conditionCache;
         this.stopRequested = false;
+        trace.clear();
     }
 
     /**
@@ -65,11 +76,19 @@ public Ladybug getLadybug() {
     }
 
     /**
-     * Gets the ladybug positions of the tick context.
-     * @return an unmodifiable view of the positions of all ladybugs
+     * Gets the execution state of the tree ticked in this context.
+     * @return the tree state
+     */
+    public TreeState getState() {
+        return state;
+    }
+
+    /**
+     * Gets the cached condition results of the tree ticked in this context.
+     * @return the condition cache
      */
-    public Set<Position> getLadybugPositions() {
-        return ladybugPositions;
+    public ConditionCache getConditionCache() {
+        return conditionCache;
     }
 
     /**
@@ -1,31 +1,120 @@
 package edu.kit.kastel.model.tree;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
 /**
  * Represents the execution trace of a behavior tree tick.
- * A trace is an ordered list of {@link TraceEntry} objects, each recording an event for a node.
+ * A trace is an ordered sequence of events, each recording the ladybug, the node, the node label and the event.
+ * The events are stored in parallel arrays that only grow, so a trace can be {@link #clear() cleared}
+ * and reused for the next tick without allocating.
+ * Nodes are recorded by their index in the {@link TreeDefinition} of the ticked tree;
+ * the ids are only looked up when an entry is read.
+ * The {@link TraceLevel} decides which events are recorded at all; callers check {@link #records(boolean)}
+ * before preparing an event.
  * @author ujsap
  */
 public class Trace {
-    private final List<TraceEntry> entries = new ArrayList<>();
+    private static final int INITIAL_CAPACITY = 16;
+    private static final TraceEvent[] EVENTS = TraceEvent.values();
+    private int[] ladybugIds = new int[INITIAL_CAPACITY];
+    private int[] nodes = new int[INITIAL_CAPACITY];
+    private String[] ids;
+    private NodeLabel[] labels = new NodeLabel[INITIAL_CAPACITY];
+    private byte[] events = new byte[INITIAL_CAPACITY];
+    private int size;
+    private TraceLevel level = TraceLevel.FULL;
 
     /**
-     * Adds a new entry to this trace.
-     * @param entry the entry to add
+     * Gets the level of this trace.
+     * @return the trace level
      */
-    public void addEntry(TraceEntry entry) {
-        entries.add(entry);
+    public TraceLevel getLevel() {
+        return level;
+    }
+
+    /**
+     * Sets the level of this trace, which applies to all events added from now on.
+     * @param level the trace level
+     */
+    public void setLevel(TraceLevel level) {
+        this.level = level;
+    }
+
+    /**
+     * Checks whether events of a node are recorded at the current level.
+     * @param action whether the node is an action node
+     * @return true if the events are recorded, false otherwise
+     */
+    public boolean records(boolean action) {
+        return level.records(action);
+    }
+
+    /**
+     * Adds a new entry to this trace without creating a {@link TraceEntry}.
+     * @param ladybugId the id of the ladybug
+     * @param node      the index of the node in the ticked tree
+     * @param label     the precomputed label of the node
+     * @param event     the recorded event
+     */
+    public void addEntry(int ladybugId, int node, NodeLabel label, TraceEvent event) {
+        if (size == events.length) {
+            int capacity = size * 2;
+            ladybugIds = Arrays.copyOf(ladybugIds, capacity);
+            nodes = Arrays.copyOf(nodes, capacity);
+            labels = Arrays.copyOf(labels, capacity);
+            events = Arrays.copyOf(events, capacity);
+        }
+        ladybugIds[size] = ladybugId;
+        nodes[size] = node;
+        labels[size] = label;
+        events[size] = (byte) event.ordinal();
+        size++;
+    }
+
+    /**
+     * Removes all entries, keeping the allocated capacity for reuse.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Sets the ids of the nodes of the ticked tree, which resolve the recorded node indices.
+     * @param ids the node ids, indexed by node index
+     */
+    void setIds(String[] ids) {
+        this.ids = ids;
+    }
+
+    /**
+     * Returns the number of entries in this trace.
+     * @return the number of entries
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the entry at the given index.
+     * @param index the index of the entry
+     * @return a new trace entry with the recorded values
+     */
+    public TraceEntry getEntry(int index) {
+        return new TraceEntry(ladybugIds[index], ids[nodes[index]], labels[index], EVENTS[events[index]]);
     }
 
     /**
      * Returns all trace entries in order.
-     * @return an unmodifiable list of trace entries
+     * @return an unmodifiable snapshot of the trace entries
      */
     public List<TraceEntry> getEntries() {
+        List<TraceEntry> entries = new ArrayList<>(size);
+        for (int index = 0; index < size; index++) {
+            entries.add(getEntry(index));
+        }
         return Collections.unmodifiableList(entries);
     }
-
 }
@@ -5,24 +5,32 @@
  * Each entry records which ladybug executed which node, of which type, and what event occurred.
  * @param ladybugId the id of the ladybug
  * @param nodeId    the id of the node
- * @param nodeType  the specific type of the node
+ * @param label     the precomputed label of the node
  * @param event     the event that occurred for the node
  * @author ujsap
  */
 public record TraceEntry(
         int ladybugId,
         String nodeId,
-        String nodeType,
+        NodeLabel label,
         TraceEvent event
 ) {
     private static final String WHITESPACE = " ";
 
+    /**
+     * Returns the specific type of the node in model coordinates.
+     * @return the node type string
+     */
+    public String nodeType() {
+        return label.text();
+    }
+
     /**
      * Returns a string representation of this trace entry in the form: ladybugId nodeId nodeType event.
      * @return a string representation of this entry
      */
     @Override
     public String toString() {
-        return ladybugId + WHITESPACE + nodeId + WHITESPACE + nodeType + WHITESPACE + event;
+        return ladybugId + WHITESPACE + nodeId + WHITESPACE + label.text() + WHITESPACE + event;
     }
 }
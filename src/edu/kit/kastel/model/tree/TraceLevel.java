@@ -0,0 +1,37 @@
+package edu.kit.kastel.model.tree;
+
+/**
+ * Represents how much of a tick is recorded in its {@link Trace}.
+ * Lower levels let simulations that never read the trace skip recording entirely.
+ * @author ujsap
+ */
+public enum TraceLevel {
+
+    /**
+     * Nothing is recorded.
+     */
+    OFF,
+
+    /**
+     * Only the results of action nodes are recorded.
+     */
+    ACTIONS_ONLY,
+
+    /**
+     * Every entry and exit of every node is recorded.
+     */
+    FULL;
+
+    /**
+     * Checks whether events of a node are recorded at this level.
+     * @param action whether the node is an action node
+     * @return true if the events are recorded, false otherwise
+     */
+    public boolean records(boolean action) {
+        return switch (this) {
+            case OFF -> false;
+            case ACTIONS_ONLY -> action;
+            case FULL -> true;
+        };
+    }
+}
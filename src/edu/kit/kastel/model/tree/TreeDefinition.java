@@ -0,0 +1,353 @@
+package edu.kit.kastel.model.tree;
+
+import edu.kit.kastel.model.exceptions.TreeParserException;
+import edu.kit.kastel.model.tree.nodes.Node;
+import edu.kit.kastel.model.tree.nodes.composites.FallbackNode;
+import edu.kit.kastel.model.tree.nodes.composites.ParallelNode;
+import edu.kit.kastel.model.tree.nodes.composites.SequenceNode;
+import edu.kit.kastel.model.tree.nodes.leafs.actions.ActionNode;
+import edu.kit.kastel.model.tree.nodes.leafs.actions.FlyNode;
+import edu.kit.kastel.model.tree.nodes.leafs.actions.MoveNode;
+import edu.kit.kastel.model.tree.nodes.leafs.actions.PlaceLeafNode;
+import edu.kit.kastel.model.tree.nodes.leafs.actions.TakeLeafNode;
+import edu.kit.kastel.model.tree.nodes.leafs.actions.TurnLeftNode;
+import edu.kit.kastel.model.tree.nodes.leafs.actions.TurnRightNode;
+import edu.kit.kastel.model.tree.nodes.leafs.conditions.AtEdgeNode;
+import edu.kit.kastel.model.tree.nodes.leafs.conditions.ConditionNode;
+import edu.kit.kastel.model.tree.nodes.leafs.conditions.ConditionReadSet;
+import edu.kit.kastel.model.tree.nodes.leafs.conditions.ExistsPathBetweenNode;
+import edu.kit.kastel.model.tree.nodes.leafs.conditions.ExistsPathToNode;
+import edu.kit.kastel.model.tree.nodes.leafs.conditions.LeafFrontNode;
+import edu.kit.kastel.model.tree.nodes.leafs.conditions.MushroomFrontNode;
+import edu.kit.kastel.model.tree.nodes.leafs.conditions.TreeFrontNode;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The immutable structure of a behavior tree, which can be shared by the trees of any number of ladybugs.
+ * Every node gets an index, its position in pre-order, under which the
+ * {@link TreeState} of each tree keeps its status. The indices also serve as dense integer ids:
+ * the definition interns the id of every node into its index, so lookups by id take constant time
+ * and traces only record the index. The compiled form of the tree is built once per definition.
+ * Every node also links to its next sibling and knows its position among the children of its parent,
+ * so stepping from a child to the next one, or resuming a parent at a child, takes constant time.
+ * Edits never change a definition; {@link #withSibling(String, Node)} and {@link #withEdits(List)} create
+ * an edited copy, which remembers where each of its nodes came from, so the state of a tree can be taken over.
+ * @author ujsap
+ */
+public final class TreeDefinition {
+
+    /**
+     * The index returned for ids that do not belong to a node of the tree.
+     */
+    public static final int NO_NODE = -1;
+    private static final String EDIT_ERROR_FORMAT = "edit %d: %s";
+    private static final int FIRST_EDIT_NUMBER = 1;
+    private final Node root;
+    private final Node[] nodes;
+    private final String[] ids;
+    private final int[] nextSiblings;
+    private final int[] positions;
+    private final int[] previousIndices;
+    private final ConditionReadSet[] readSets;
+    private final Map<String, Integer> indicesByID;
+    private final boolean readsPaths;
+    private CompiledProgram program;
+
+    /**
+     * Creates a new definition for the tree below the given root and numbers its nodes.
+     * The nodes must not belong to another definition.
+     * @param root the root node of the tree
+     */
+    public TreeDefinition(Node root) {
+        this(root, null);
+    }
+
+    private TreeDefinition(Node root, Map<Node, Integer> previousIndicesByNode) {
+        this.root = root;
+        List<Node> order = new ArrayList<>();
+        number(root, order);
+        this.nodes = order.toArray(new Node[0]);
+        this.ids = new String[nodes.length];
+        this.nextSiblings = new int[nodes.length];
+        this.positions = new int[nodes.length];
+        this.readSets = new ConditionReadSet[nodes.length];
+        this.indicesByID = new HashMap<>();
+        Arrays.fill(nextSiblings, NO_NODE);
+        for (int index = 0; index < nodes.length; index++) {
+            ids[index] = nodes[index].getId();
+            indicesByID.put(ids[index], index);
+            if (nodes[index] instanceof ConditionNode condition) {
+                readSets[index] = condition.getConditionType().getReadSet();
+            }
+            List<Node> children = nodes[index].getChildren();
+            for (int child = 0; child < children.size(); child++) {
+                positions[children.get(child).getIndex()] = child;
+                if (child > 0) {
+                    nextSiblings[children.get(child - 1).getIndex()] = children.get(child).getIndex();
+                }
+            }
+        }
+        this.readsPaths = containsPathCondition();
+        if (previousIndicesByNode == null) {
+            this.previousIndices = null;
+            return;
+        }
+        this.previousIndices = new int[nodes.length];
+        for (int index = 0; index < nodes.length; index++) {
+            previousIndices[index] = previousIndicesByNode.getOrDefault(nodes[index], NO_NODE);
+        }
+    }
+
+    private static void number(Node node, List<Node> order) {
+        node.setIndex(order.size());
+        order.add(node);
+        for (Node child : node.getChildren()) {
+            number(child, order);
+        }
+    }
+
+    private boolean containsPathCondition() {
+        for (Node node : nodes) {
+            if (node instanceof ConditionNode condition && condition.getConditionType().readsPaths()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gets the root node of the tree.
+     * @return the root node
+     */
+    public Node getRoot() {
+        return root;
+    }
+
+    /**
+     * Gets the number of nodes of the tree.
+     * @return the number of nodes
+     */
+    public int size() {
+        return nodes.length;
+    }
+
+    /**
+     * Gets the node with the given index.
+     * @param index the node index
+     * @return the node
+     */
+    public Node getNode(int index) {
+        return nodes[index];
+    }
+
+    /**
+     * Gets the index of the next sibling of the node with the given index.
+     * @param index the node index
+     * @return the index of the next sibling, or {@link #NO_NODE} if the node is the last child of its parent
+     */
+    public int nextSibling(int index) {
+        return nextSiblings[index];
+    }
+
+    /**
+     * Gets the position of the node with the given index among the children of its parent.
+     * @param index the node index
+     * @return the position of the node, zero for the first child and for the root
+     */
+    public int positionOf(int index) {
+        return positions[index];
+    }
+
+    /**
+     * Gets the index of the node with the given id.
+     * @param id the node id
+     * @return the node index, or {@link #NO_NODE} if the tree has no node with this id
+     */
+    public int indexOf(String id) {
+        Integer index = indicesByID.get(id);
+        return index == null ? NO_NODE : index;
+    }
+
+    /**
+     * Checks whether the tree has a node with the given id.
+     * @param id the node id
+     * @return true if the node exists, false otherwise
+     */
+    public boolean hasNode(String id) {
+        return indicesByID.containsKey(id);
+    }
+
+    /**
+     * Finds a node by its id.
+     * @param id the node id
+     * @return the node, or {@code null} if the tree has no node with this id
+     */
+    public Node findNodeByID(String id) {
+        int index = indexOf(id);
+        return index == NO_NODE ? null : nodes[index];
+    }
+
+    /**
+     * Gets the ids of all nodes, indexed by node index. The array must not be modified.
+     * @return the node ids
+     */
+    String[] ids() {
+        return ids;
+    }
+
+    /**
+     * Gets the read sets of all conditions, indexed by node index, with {@code null} for all other nodes.
+     * The array must not be modified.
+     * @return the read sets
+     */
+    ConditionReadSet[] readSets() {
+        return readSets;
+    }
+
+    /**
+     * Checks whether this tree contains conditions that ask for paths on the board.
+     * @return true if a tick may depend on any cell of the board, false otherwise
+     */
+    public boolean readsPaths() {
+        return readsPaths;
+    }
+
+    /**
+     * Creates a new state for this tree, in which no node has been entered yet.
+     * @return the initial state
+     */
+    public TreeState newState() {
+        return new TreeState(nodes.length);
+    }
+
+    /**
+     * Gets the compiled form of this tree, lowering it on the first call.
+     * @return the compiled program
+     */
+    synchronized CompiledProgram program() {
+        if (program == null) {
+            program = CompiledProgram.compile(this);
+        }
+        return program;
+    }
+
+    /**
+     * Creates a copy of this tree in which the given node is inserted directly after an existing node.
+     * This definition and its nodes are left unchanged.
+     * The node is inserted while the tree is copied, so no child list has to be searched.
+     * Unlike inserting into the child list of the parent in place, which only took time in the number of siblings,
+     * this takes time linear in the size of the whole tree. Copying only the ancestors of the new node would not
+     * change that: node indices are positions in pre-order, so an insertion shifts the index of every later node,
+     * and every state of the tree has to be translated to the new indices anyway. Insertions are rare commands,
+     * while the dense indices make every tick cheaper, so the linear cost is accepted.
+     * @param existingID the id of the existing node, which must not be the root
+     * @param newNode    the new node to insert, which must not belong to any definition
+     * @return the edited definition
+     */
+    public TreeDefinition withSibling(String existingID, Node newNode) {
+        Map<Node, Integer> previousIndicesByNode = new IdentityHashMap<>();
+        Node rootCopy = copySubtree(root, findNodeByID(existingID), newNode, previousIndicesByNode);
+        rootCopy.setParent(rootCopy);
+        return new TreeDefinition(rootCopy, previousIndicesByNode);
+    }
+
+    /**
+     * Creates a copy of this tree with a batch of edits applied in order.
+     * The whole batch is validated before the copy is built, so either all edits are applied or none.
+     * This definition and its nodes are left unchanged.
+     * @param edits the edits to apply
+     * @return the edited definition
+     * @throws TreeParserException if an edit is invalid, prefixed with the number of the edit,
+     *         or if the edited tree contains no action
+     */
+    public TreeDefinition withEdits(List<TreeEdit> edits) throws TreeParserException {
+        TreeDraft draft = new TreeDraft(this);
+        for (int index = 0; index < edits.size(); index++) {
+            try {
+                draft.apply(edits.get(index));
+            } catch (TreeParserException e) {
+                throw new TreeParserException(String.format(EDIT_ERROR_FORMAT, index + FIRST_EDIT_NUMBER,
+                        e.getMessage()));
+            }
+        }
+        Map<Node, Integer> previousIndicesByNode = new IdentityHashMap<>();
+        Node rootCopy = draft.build(previousIndicesByNode);
+        return new TreeDefinition(rootCopy, previousIndicesByNode);
+    }
+
+    /**
+     * Translates a state of the tree this definition was edited from into a state of this tree,
+     * so it may only be called on definitions created by an edit.
+     * Nodes taken over from that tree keep their status, new nodes start at
+     * {@link edu.kit.kastel.model.tree.nodes.NodeStatus#ENTRY}.
+     * If the current node was removed, the next tick starts at the root.
+     * @param previousState the state to translate
+     * @return the translated state
+     */
+    public TreeState adoptState(TreeState previousState) {
+        TreeState adopted = newState();
+        for (int index = 0; index < nodes.length; index++) {
+            int previous = previousIndices[index];
+            if (previous == NO_NODE) {
+                continue;
+            }
+            adopted.setStatus(index, previousState.getStatus(previous));
+            if (previous == previousState.getCurrent()) {
+                adopted.setCurrent(index);
+            }
+        }
+        return adopted;
+    }
+
+    private static Node copySubtree(Node node, Node existing, Node newNode,
+                                    Map<Node, Integer> previousIndicesByNode) {
+        Node copy = copyNode(node);
+        previousIndicesByNode.put(copy, node.getIndex());
+        for (Node child : node.getChildren()) {
+            copy.addChild(copySubtree(child, existing, newNode, previousIndicesByNode));
+            if (child == existing) {
+                copy.addChild(newNode);
+            }
+        }
+        return copy;
+    }
+
+    /**
+     * Creates a node of the same kind, id and parameters as the given node, without parent and children.
+     * @param node the node to copy
+     * @return the copy
+     */
+    static Node copyNode(Node node) {
+        String id = node.getId();
+        return switch (node.getNodeType()) {
+            case SEQUENCE -> new SequenceNode(id, null);
+            case FALLBACK -> new FallbackNode(id, null);
+            case PARALLEL -> new ParallelNode(id, null, ((ParallelNode) node).getThreshold());
+            case ACTION -> switch (((ActionNode) node).getActionType()) {
+                case MOVE -> new MoveNode(id, null);
+                case TURN_LEFT -> new TurnLeftNode(id, null);
+                case TURN_RIGHT -> new TurnRightNode(id, null);
+                case TAKE_LEAF -> new TakeLeafNode(id, null);
+                case PLACE_LEAF -> new PlaceLeafNode(id, null);
+                case FLY -> new FlyNode(id, null, ((FlyNode) node).getGoal());
+            };
+            case CONDITION -> switch (((ConditionNode) node).getConditionType()) {
+                case AT_EDGE -> new AtEdgeNode(id, null);
+                case LEAF_FRONT -> new LeafFrontNode(id, null);
+                case TREE_FRONT -> new TreeFrontNode(id, null);
+                case MUSHROOM_FRONT -> new MushroomFrontNode(id, null);
+                case EXISTS_PATH_TO -> new ExistsPathToNode(id, null, ((ExistsPathToNode) node).getGoal());
+                case EXISTS_PATH_BETWEEN -> {
+                    ExistsPathBetweenNode between = (ExistsPathBetweenNode) node;
+                    yield new ExistsPathBetweenNode(id, null, between.getStart(), between.getGoal());
+                }
+            };
+        };
+    }
+}
@@ -0,0 +1,211 @@
+package edu.kit.kastel.model.tree;
+
+import edu.kit.kastel.model.exceptions.TreeParserException;
+import edu.kit.kastel.model.tree.nodes.Node;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A mutable draft of a behavior tree, used to apply a batch of {@link TreeEdit edits} before building
+ * a new {@link TreeDefinition} once.
+ * Every entry links to its parent, its siblings and its first and last child, and the entries are indexed by id,
+ * so every edit takes constant time apart from forgetting the ids of a removed subtree.
+ * The draft never changes the nodes of the definition it was created from.
+ * @author ujsap
+ */
+final class TreeDraft {
+    private static final String NODE_NOT_FOUND_ERROR = "node %s could not be found";
+    private static final String NODE_EXISTS_ERROR = "node %s exists already";
+    private static final String ROOT_CAN_NOT_BE_EDITED_ERROR = "root can not be edited";
+    private static final String CAN_NOT_BE_PARENT_ERROR = "%s type can not be parent";
+    private static final String MOVE_INTO_SUBTREE_ERROR = "node %s can not be moved into its own subtree";
+    private static final String CONTAINS_NO_ACTION_ERROR = "tree must contain at least one action";
+
+    private final Map<String, Entry> entries = new HashMap<>();
+    private final Entry root;
+
+    /**
+     * Creates a draft with the structure of the given tree.
+     * @param definition the tree to edit
+     */
+    TreeDraft(TreeDefinition definition) {
+        root = enter(definition.getRoot());
+    }
+
+    private Entry enter(Node node) {
+        Entry entry = new Entry(node, node.getIndex());
+        entries.put(node.getId(), entry);
+        for (Node child : node.getChildren()) {
+            appendChild(entry, enter(child));
+        }
+        return entry;
+    }
+
+    /**
+     * Applies a single edit to this draft. If the edit is invalid, the draft must be discarded.
+     * @param edit the edit to apply
+     * @throws TreeParserException if the edit refers to missing nodes, adds an existing id,
+     *         edits the root or would not result in a tree
+     */
+    void apply(TreeEdit edit) throws TreeParserException {
+        switch (edit.type()) {
+            case INSERT -> insertAfter(findEditable(edit.anchorID()), create(edit.node()));
+            case APPEND -> {
+                Entry parent = find(edit.anchorID());
+                if (!parent.prototype.getNodeType().isComposite()) {
+                    throw new TreeParserException(String.format(CAN_NOT_BE_PARENT_ERROR,
+                            parent.prototype.getNodeType()));
+                }
+                appendChild(parent, create(edit.node()));
+            }
+            case REMOVE -> {
+                Entry removed = findEditable(edit.nodeID());
+                unlink(removed);
+                forget(removed);
+            }
+            case REPLACE -> {
+                Entry replaced = findEditable(edit.nodeID());
+                forget(replaced);
+                insertAfter(replaced, create(edit.node()));
+                unlink(replaced);
+            }
+            case MOVE -> {
+                Entry moved = findEditable(edit.nodeID());
+                Entry anchor = findEditable(edit.anchorID());
+                for (Entry ancestor = anchor; ancestor != null; ancestor = ancestor.parent) {
+                    if (ancestor == moved) {
+                        throw new TreeParserException(String.format(MOVE_INTO_SUBTREE_ERROR, edit.nodeID()));
+                    }
+                }
+                unlink(moved);
+                insertAfter(anchor, moved);
+            }
+        }
+    }
+
+    /**
+     * Builds the nodes of the edited tree.
+     * @param previousIndices receives, for every node taken over from the original tree, its index in that tree
+     * @return the root of the edited tree
+     * @throws TreeParserException if the edited tree contains no action
+     */
+    Node build(Map<Node, Integer> previousIndices) throws TreeParserException {
+        boolean hasAction = false;
+        for (Entry entry : entries.values()) {
+            if (entry.prototype.getNodeType().isAction()) {
+                hasAction = true;
+                break;
+            }
+        }
+        if (!hasAction) {
+            throw new TreeParserException(CONTAINS_NO_ACTION_ERROR);
+        }
+        Node rootCopy = copy(root, previousIndices);
+        rootCopy.setParent(rootCopy);
+        return rootCopy;
+    }
+
+    private Node copy(Entry entry, Map<Node, Integer> previousIndices) {
+        Node copy = TreeDefinition.copyNode(entry.prototype);
+        if (entry.origin != TreeDefinition.NO_NODE) {
+            previousIndices.put(copy, entry.origin);
+        }
+        for (Entry child = entry.firstChild; child != null; child = child.next) {
+            copy.addChild(copy(child, previousIndices));
+        }
+        return copy;
+    }
+
+    private Entry find(String id) throws TreeParserException {
+        Entry entry = entries.get(id);
+        if (entry == null) {
+            throw new TreeParserException(String.format(NODE_NOT_FOUND_ERROR, id));
+        }
+        return entry;
+    }
+
+    private Entry findEditable(String id) throws TreeParserException {
+        Entry entry = find(id);
+        if (entry == root) {
+            throw new TreeParserException(ROOT_CAN_NOT_BE_EDITED_ERROR);
+        }
+        return entry;
+    }
+
+    private Entry create(Node prototype) throws TreeParserException {
+        if (entries.containsKey(prototype.getId())) {
+            throw new TreeParserException(String.format(NODE_EXISTS_ERROR, prototype.getId()));
+        }
+        Entry entry = new Entry(prototype, TreeDefinition.NO_NODE);
+        entries.put(prototype.getId(), entry);
+        return entry;
+    }
+
+    private void forget(Entry entry) {
+        entries.remove(entry.prototype.getId());
+        for (Entry child = entry.firstChild; child != null; child = child.next) {
+            forget(child);
+        }
+    }
+
+    private static void appendChild(Entry parent, Entry child) {
+        child.parent = parent;
+        child.previous = parent.lastChild;
+        child.next = null;
+        if (parent.lastChild == null) {
+            parent.firstChild = child;
+        } else {
+            parent.lastChild.next = child;
+        }
+        parent.lastChild = child;
+    }
+
+    private static void insertAfter(Entry anchor, Entry entry) {
+        Entry parent = anchor.parent;
+        entry.parent = parent;
+        entry.previous = anchor;
+        entry.next = anchor.next;
+        if (anchor.next == null) {
+            parent.lastChild = entry;
+        } else {
+            anchor.next.previous = entry;
+        }
+        anchor.next = entry;
+    }
+
+    private static void unlink(Entry entry) {
+        Entry parent = entry.parent;
+        if (entry.previous == null) {
+            parent.firstChild = entry.next;
+        } else {
+            entry.previous.next = entry.next;
+        }
+        if (entry.next == null) {
+            parent.lastChild = entry.previous;
+        } else {
+            entry.next.previous = entry.previous;
+        }
+        entry.parent = null;
+        entry.previous = null;
+        entry.next = null;
+    }
+
+    /**
+     * A node of the draft, linked to its neighbours.
+     */
+    private static final class Entry {
+        private final Node prototype;
+        private final int origin;
+        private Entry parent;
+        private Entry previous;
+        private Entry next;
+        private Entry firstChild;
+        private Entry lastChild;
+
+        Entry(Node prototype, int origin) {
+            this.prototype = prototype;
+            this.origin = origin;
+        }
+    }
+}
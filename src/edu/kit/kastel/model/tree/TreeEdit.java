@@ -0,0 +1,70 @@
+package edu.kit.kastel.model.tree;
+
+import edu.kit.kastel.model.tree.nodes.Node;
+
+/**
+ * Represents a single structural edit of a behavior tree, applied as part of a batch by
+ * {@link BehaviorTree#applyEdits(java.util.List)}.
+ * New nodes are only used as templates, so the same edit can be applied to several trees.
+ * @param type     the kind of edit
+ * @param nodeID   the id of the edited node, or {@code null} if the edit only adds a node
+ * @param anchorID the id of the node the new or moved node is placed at, or {@code null} if there is none
+ * @param node     the template of the new node, or {@code null} if the edit adds no node
+ * @author ujsap
+ */
+public record TreeEdit(
+        TreeEditType type,
+        String nodeID,
+        String anchorID,
+        Node node
+) {
+
+    /**
+     * Creates an edit that inserts a new node directly after an existing node.
+     * @param anchorID the id of the existing node
+     * @param node     the template of the new node
+     * @return the edit
+     */
+    public static TreeEdit insert(String anchorID, Node node) {
+        return new TreeEdit(TreeEditType.INSERT, null, anchorID, node);
+    }
+
+    /**
+     * Creates an edit that inserts a new node as the last child of an existing composite node.
+     * @param parentID the id of the composite node
+     * @param node     the template of the new node
+     * @return the edit
+     */
+    public static TreeEdit append(String parentID, Node node) {
+        return new TreeEdit(TreeEditType.APPEND, null, parentID, node);
+    }
+
+    /**
+     * Creates an edit that removes a node together with its subtree.
+     * @param nodeID the id of the node
+     * @return the edit
+     */
+    public static TreeEdit remove(String nodeID) {
+        return new TreeEdit(TreeEditType.REMOVE, nodeID, null, null);
+    }
+
+    /**
+     * Creates an edit that replaces a node and its subtree by a new node, which may reuse the id.
+     * @param nodeID the id of the node
+     * @param node   the template of the new node
+     * @return the edit
+     */
+    public static TreeEdit replace(String nodeID, Node node) {
+        return new TreeEdit(TreeEditType.REPLACE, nodeID, null, node);
+    }
+
+    /**
+     * Creates an edit that moves a node together with its subtree directly after another node.
+     * @param nodeID   the id of the node
+     * @param anchorID the id of the node to move it after
+     * @return the edit
+     */
+    public static TreeEdit move(String nodeID, String anchorID) {
+        return new TreeEdit(TreeEditType.MOVE, nodeID, anchorID, null);
+    }
+}
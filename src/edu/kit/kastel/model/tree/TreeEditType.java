@@ -0,0 +1,32 @@
+package edu.kit.kastel.model.tree;
+
+/**
+ * Represents the kind of a structural {@link TreeEdit}.
+ * @author ujsap
+ */
+public enum TreeEditType {
+    /**
+     * Inserts a new node directly after an existing node.
+     */
+    INSERT,
+
+    /**
+     * Inserts a new node as the last child of an existing composite node.
+     */
+    APPEND,
+
+    /**
+     * Removes a node together with its subtree.
+     */
+    REMOVE,
+
+    /**
+     * Replaces a node and its subtree by a new node.
+     */
+    REPLACE,
+
+    /**
+     * Moves a node together with its subtree directly after another node.
+     */
+    MOVE
+}
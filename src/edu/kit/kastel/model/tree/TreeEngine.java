@@ -0,0 +1,26 @@
+package edu.kit.kastel.model.tree;
+
+/**
+ * Represents the engines that can execute the ticks of a {@link BehaviorTree}.
+ * Both engines produce the same traces and perform the same actions.
+ * @author ujsap
+ */
+public enum TreeEngine {
+
+    /**
+     * Ticks the linked {@link edu.kit.kastel.model.tree.nodes.Node} objects directly.
+     */
+    INTERPRETED,
+
+    /**
+     * Lowers the tree into flat arrays once and ticks those arrays in a tight loop.
+     */
+    COMPILED,
+
+    /**
+     * Ticks the linked nodes at first and promotes the tree to the compiled form
+     * once it has been ticked a configurable number of times without being edited.
+     * Editing the tree drops it back to the linked nodes until it is hot again.
+     */
+    ADAPTIVE
+}
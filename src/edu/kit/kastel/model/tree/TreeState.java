@@ -0,0 +1,150 @@
+package edu.kit.kastel.model.tree;
+
+import edu.kit.kastel.model.tree.nodes.NodeStatus;
+
+import java.util.Arrays;
+
+/**
+ * The execution state of one behavior tree, kept apart from the nodes of its {@link TreeDefinition}.
+ * The state holds the status of every node, indexed by {@link edu.kit.kastel.model.tree.nodes.Node#getIndex()},
+ * and the index of the node the next tick continues with.
+ * Since the nodes hold no state, one definition can be shared by any number of trees.
+ * Every status is stamped with the epoch in which it was set and only counts within that epoch;
+ * any older status reads as {@link NodeStatus#ENTRY}. Resetting all nodes therefore only starts a new epoch.
+ * A state that was suspended at an action by a walk of the tree is resumable: every ancestor of that action
+ * is running and all of their earlier children are finished, so the next tick can continue at the parent
+ * of the action instead of walking down from the root again. Resetting the state or setting the current node
+ * directly, as jumps and edits do, ends this until the next walk suspends again.
+ * @author ujsap
+ */
+public final class TreeState {
+    private static final byte ENTRY = (byte) NodeStatus.ENTRY.ordinal();
+    private static final NodeStatus[] STATUSES = NodeStatus.values();
+    private static final int ROOT = 0;
+    private static final int STALE_EPOCH = 0;
+    private static final int FIRST_EPOCH = 1;
+
+    private final byte[] statuses;
+    private final int[] stamps;
+    private int epoch;
+    private int current;
+    private boolean resumable;
+
+    /**
+     * Creates a new state for a tree with the given number of nodes,
+     * in which every node is at {@link NodeStatus#ENTRY} and the next tick starts at the root.
+     * @param size the number of nodes
+     */
+    TreeState(int size) {
+        statuses = new byte[size];
+        stamps = new int[size];
+        epoch = FIRST_EPOCH;
+        current = ROOT;
+    }
+
+    /**
+     * Gets the status of the node with the given index.
+     * @param index the node index
+     * @return the node status
+     */
+    public NodeStatus getStatus(int index) {
+        return STATUSES[status(index)];
+    }
+
+    /**
+     * Sets the status of the node with the given index.
+     * @param index  the node index
+     * @param status the status to be set
+     */
+    public void setStatus(int index, NodeStatus status) {
+        setStatus(index, (byte) status.ordinal());
+    }
+
+    /**
+     * Resets the status of every node to {@link NodeStatus#ENTRY} by starting a new epoch.
+     */
+    public void reset() {
+        epoch++;
+        if (epoch == STALE_EPOCH) {
+            // the epochs wrapped around, so old stamps could become valid again
+            Arrays.fill(stamps, STALE_EPOCH);
+            epoch = FIRST_EPOCH;
+        }
+        resumable = false;
+    }
+
+    /**
+     * Gets the index of the node the next tick continues with.
+     * @return the index of the current node
+     */
+    public int getCurrent() {
+        return current;
+    }
+
+    /**
+     * Sets the index of the node the next tick continues with.
+     * The next tick walks down from the root to find its way to that node.
+     * @param current the index of the current node
+     */
+    public void setCurrent(int current) {
+        this.current = current;
+        this.resumable = false;
+    }
+
+    /**
+     * Suspends a walk of the tree at the action the tick performs, which becomes the current node.
+     * Until the state is reset or the current node is set otherwise, the next tick resumes at its parent.
+     * @param action the index of the action
+     */
+    public void suspendAt(int action) {
+        this.current = action;
+        this.resumable = true;
+    }
+
+    /**
+     * Ends the suspension of this state, so the next tick walks down from the root.
+     */
+    void endSuspension() {
+        this.resumable = false;
+    }
+
+    /**
+     * Checks whether the next tick can resume at the parent of the current node
+     * instead of walking down from the root.
+     * @return true if the state was suspended by a walk and not changed otherwise since, false otherwise
+     */
+    public boolean isResumable() {
+        return resumable;
+    }
+
+    /**
+     * Gets the status of the node with the given index as an ordinal, for engines that work on the ordinals.
+     * @param index the node index
+     * @return the ordinal of the node status
+     */
+    byte status(int index) {
+        return stamps[index] == epoch ? statuses[index] : ENTRY;
+    }
+
+    /**
+     * Sets the status of the node with the given index as an ordinal.
+     * @param index  the node index
+     * @param status the ordinal of the node status
+     */
+    void setStatus(int index, byte status) {
+        statuses[index] = status;
+        stamps[index] = epoch;
+    }
+
+    /**
+     * Overwrites this state with a copy of the given state of the same tree.
+     * @param other the state to copy
+     */
+    void copyFrom(TreeState other) {
+        System.arraycopy(other.statuses, 0, statuses, 0, statuses.length);
+        System.arraycopy(other.stamps, 0, stamps, 0, stamps.length);
+        epoch = other.epoch;
+        current = other.current;
+        resumable = other.resumable;
+    }
+}
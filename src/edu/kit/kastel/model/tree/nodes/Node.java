@@ -1,41 +1,46 @@
 package edu.kit.kastel.model.tree.nodes;
 
+import edu.kit.kastel.model.tree.NodeLabel;
 import edu.kit.kastel.model.tree.TickContext;
-import edu.kit.kastel.model.tree.TraceEntry;
+import edu.kit.kastel.model.tree.Trace;
 import edu.kit.kastel.model.tree.TraceEvent;
+import edu.kit.kastel.model.tree.TreeState;
 
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import java.util.Map;
 
 /**
  * Abstract base class for all nodes in a behavior tree.
- * A node has: an id for identification, a node type, a parent, a list of children and a status to track its state.
+ * A node has: an id for identification, a node type, a label, a parent, a list of children
+ * and an index, under which the {@link TreeState} of a tree keeps its status.
+ * Nodes hold no execution state, so one node can be ticked for any number of trees.
  * Subclasses implement their own execution logic in {@link #tick(TickContext)}.
  * @author ujsap
  */
 public abstract class Node {
-    private static final int NEXT_INDEX_NUMBER = 1;
-
     private final List<Node> children;
+    private final List<Node> childrenView;
     private final String id;
     private final NodeType nodeType;
+    private final NodeLabel label;
     private Node parent;
-    private NodeStatus nodeStatus;
+    private int index;
 
     /**
      * Creates a new node.
      * @param id       the node id
      * @param nodeType the type of this node
+     * @param label    the precomputed label of this node
      * @param parent   the parent node
      */
-    protected Node(String id, NodeType nodeType, Node parent) {
+    protected Node(String id, NodeType nodeType, NodeLabel label, Node parent) {
         this.id = id;
         this.nodeType = nodeType;
+        this.label = label;
         this.parent = parent;
         children = new ArrayList<>();
-        this.nodeStatus = NodeStatus.ENTRY;
+        childrenView = Collections.unmodifiableList(children);
     }
 
     /**
@@ -53,17 +58,6 @@ public void setParent(Node parent) {
         this.parent = parent;
     }
 
-    /**
-     * Inserts a new child node directly after an existing child.
-     * @param existing the existing child node
-     * @param newChild the new child node to insert
-     */
-    public void insertChildAfter(Node existing, Node newChild) {
-        int existingIndex = indexOfChild(existing);
-        children.add(existingIndex + NEXT_INDEX_NUMBER, newChild);
-        newChild.setParent(this);
-    }
-
     /**
      * Gets the node id.
      * @return the node id
@@ -81,44 +75,51 @@ public NodeType getNodeType() {
     }
 
     /**
-     * Logs an entry event for this node and sets its status to {@link NodeStatus#RUNNING}.
+     * Logs an entry event for this node, if the trace level records it,
+     * and sets its status to {@link NodeStatus#RUNNING}.
      * @param tickContext the current tick context containing board, ladybug, and trace
      */
     protected final void logEntry(TickContext tickContext) {
-        setNodeStatus(NodeStatus.RUNNING);
-        tickContext.getTrace().addEntry(
-                new TraceEntry(tickContext.getLadybug().getId(), id, getSpecificType(), TraceEvent.ENTRY)
-        );
+        setNodeStatus(tickContext.getState(), NodeStatus.RUNNING);
+        Trace trace = tickContext.getTrace();
+        if (trace.records(nodeType.isAction())) {
+            trace.addEntry(tickContext.getLadybug().getId(), index, label, TraceEvent.ENTRY);
+        }
     }
 
     /**
-     * Logs an exit event for this node and sets its status to the given result.
+     * Logs an exit event for this node, if the trace level records it, and sets its status to the given result.
      * @param tickContext the tick context
      * @param status      the final status
      */
     protected final void logExit(TickContext tickContext, NodeStatus status) {
-        setNodeStatus(status);
-        tickContext.getTrace().addEntry(
-                new TraceEntry(
-                        tickContext.getLadybug().getId(),
-                        id,
-                        getSpecificType(),
-                        status == NodeStatus.SUCCESS ? TraceEvent.SUCCESS : TraceEvent.FAILURE
-                )
-        );
+        setNodeStatus(tickContext.getState(), status);
+        Trace trace = tickContext.getTrace();
+        if (trace.records(nodeType.isAction())) {
+            trace.addEntry(
+                    tickContext.getLadybug().getId(),
+                    index,
+                    label,
+                    status == NodeStatus.SUCCESS ? TraceEvent.SUCCESS : TraceEvent.FAILURE
+            );
+        }
     }
 
     /**
-     * Gets the specific type of node, in string representation.
-     * @return a more specific type
+     * Gets the label of this node, which is computed once when the node is created.
+     * @return the node label
      */
-    public abstract String getSpecificType();
+    public NodeLabel getLabel() {
+        return label;
+    }
 
     /**
-     * Registers this node and its subtree in the given index.
-     * @param index a map from node ids to node instances
+     * Gets the specific type of node, in string representation.
+     * @return a more specific type
      */
-    public abstract void registerSubtree(Map<String, Node> index);
+    public String getSpecificType() {
+        return label.text();
+    }
 
     /**
      * Adds a child to this node and updates its parent reference.
@@ -130,50 +131,52 @@ public void addChild(Node child) {
     }
 
     /**
-     * Gets the index of a given child.
-     * @param child the child node to find the index from
-     * @return the index of the given child
+     * Gets a list of the children.
+     * @return the list of children
      */
-    private int indexOfChild(Node child) {
-        return this.children.indexOf(child);
+    public final List<Node> getChildren() {
+        return childrenView;
     }
 
     /**
-     * Gets a list of the children.
-     * @return the list of children
+     * Gets the parent of a node.
+     * @return the parent node
      */
-    public final List<Node> getChildren() {
-        return Collections.unmodifiableList(this.children);
+    public Node getParent() {
+        return this.parent;
     }
 
     /**
-     * Resets the internal state of this node.
-     * Is an empty method, so subclasses from node can override it.
+     * Gets the index of this node, which is assigned by its {@link edu.kit.kastel.model.tree.TreeDefinition}.
+     * @return the node index
      */
-    public void resetState() {
+    public int getIndex() {
+        return index;
     }
 
     /**
-     * Gets the parent of a node.
-     * @return the parent node
+     * Sets the index of this node.
+     * @param index the node index
      */
-    public Node getParent() {
-        return this.parent;
+    public void setIndex(int index) {
+        this.index = index;
     }
 
     /**
-     * Updates the current node status.
+     * Updates the status of this node in the given tree state.
+     * @param state      the state of the tree
      * @param nodeStatus the status to be set
      */
-    public void setNodeStatus(NodeStatus nodeStatus) {
-        this.nodeStatus = nodeStatus;
+    public void setNodeStatus(TreeState state, NodeStatus nodeStatus) {
+        state.setStatus(index, nodeStatus);
     }
 
     /**
-     * Gets the node status of a node.
+     * Gets the status of this node in the given tree state.
+     * @param state the state of the tree
      * @return the current node status
      */
-    public NodeStatus getNodeStatus() {
-        return this.nodeStatus;
+    public NodeStatus getNodeStatus(TreeState state) {
+        return state.getStatus(index);
     }
 }
@@ -1,10 +1,12 @@
 package edu.kit.kastel.model.tree.nodes.composites;
 
+import edu.kit.kastel.model.tree.NodeLabel;
 import edu.kit.kastel.model.tree.TickContext;
+import edu.kit.kastel.model.tree.TreeState;
 import edu.kit.kastel.model.tree.nodes.Node;
 import edu.kit.kastel.model.tree.nodes.NodeStatus;
 import edu.kit.kastel.model.tree.nodes.NodeType;
-import java.util.Map;
+import java.util.List;
 
 /**
  * Abstract base class for all composite nodes in a behavior tree.
@@ -13,6 +15,11 @@
  */
 public abstract class CompositeNode extends Node {
 
+    /**
+     * The position of the first child, where a tick starts.
+     */
+    protected static final int FIRST_CHILD = 0;
+
     /**
      * Creates a new CompositeNode.
      * @param id       the node id
@@ -20,7 +27,7 @@ public abstract class CompositeNode extends Node {
      * @param parent   the parent node
      */
     protected CompositeNode(String id, NodeType nodeType, Node parent) {
-        super(id, nodeType, parent);
+        super(id, nodeType, NodeLabel.of(nodeType.toString()), parent);
     }
 
     /**
@@ -32,57 +39,60 @@ protected CompositeNode(String id, NodeType nodeType, Node parent) {
     public abstract NodeStatus tick(TickContext tickContext);
 
     /**
-     * Ensures the entry of this node is logged if its status is still {@link NodeStatus#ENTRY}.
+     * Continues this running composite node at the child at the given position, as a tick would after
+     * finding all earlier children finished without ending this node.
+     * The tree uses this to resume a suspended tick at the parent of its current node and unwind upward.
      * @param tickContext the tick context
+     * @param position    the position of the child to continue with
+     * @return the resulting status
      */
-    protected final void ensureEntry(TickContext tickContext) {
-        if ((getNodeStatus() == NodeStatus.ENTRY)) {
-            logEntry(tickContext);
-            this.setNodeStatus(NodeStatus.RUNNING);
-        }
-    }
+    public abstract NodeStatus resume(TickContext tickContext, int position);
 
     /**
-     * Registers this node and all of its children in the given index.
-     * @param index a map from node ids to node instances
+     * Ensures the entry of this node is logged if its status is still {@link NodeStatus#ENTRY}.
+     * @param tickContext the tick context
      */
-    @Override
-    public void registerSubtree(Map<String, Node> index) {
-        index.put(getId(), this);
-        for (Node child : getChildren()) {
-            child.registerSubtree(index);
+    protected final void ensureEntry(TickContext tickContext) {
+        if ((getNodeStatus(tickContext.getState()) == NodeStatus.ENTRY)) {
+            logEntry(tickContext);
+            this.setNodeStatus(tickContext.getState(), NodeStatus.RUNNING);
         }
     }
 
     /**
-     * Executes children sequentially until one matches the breakOn status,or all finish without it,
+     * Executes children sequentially, starting at the given position,
+     * until one matches the breakOn status, or all finish without it,
      * in which case defaultIfNoBreak is returned.
      * If an action node is encountered, it becomes the current node,
      * execution stops, and {@link NodeStatus#RUNNING} is returned.
      *
      * @param tickContext       the tick context
+     * @param position          the position of the first child to execute
      * @param breakOn           the status that causes early termination
      * @param defaultIfNoBreak  the status if no child produced breakOn
      * @return the resulting node status
      */
-    protected final NodeStatus runChildrenLinear(TickContext tickContext,
+    protected final NodeStatus runChildrenLinear(TickContext tickContext, int position,
                                                  NodeStatus breakOn, NodeStatus defaultIfNoBreak) {
 
         ensureEntry(tickContext);
-        for (Node child : getChildren()) {
-            NodeStatus preStatus = child.getNodeStatus();
+        TreeState state = tickContext.getState();
+        List<Node> children = getChildren();
+        for (int index = position; index < children.size(); index++) {
+            Node child = children.get(index);
+            NodeStatus preStatus = child.getNodeStatus(state);
             if (preStatus == breakOn) {
-                setNodeStatus(preStatus);
+                setNodeStatus(state, preStatus);
                 logExit(tickContext, preStatus);
                 return preStatus;
             }
 
-            if (child.getNodeStatus().isFinished()) {
+            if (child.getNodeStatus(state).isFinished()) {
                 continue;
             }
 
             if (child.getNodeType().isAction()) {
-                tickContext.getLadybug().getBehaviorTree().setCurrentNode(child);
+                state.suspendAt(child.getIndex());
                 tickContext.requestStop();
                 return NodeStatus.RUNNING;
             }
@@ -92,35 +102,15 @@ protected final NodeStatus runChildrenLinear(TickContext tickContext,
                 return NodeStatus.RUNNING;
             }
 
-            NodeStatus postStatus = child.getNodeStatus();
+            NodeStatus postStatus = child.getNodeStatus(state);
             if (postStatus == breakOn) {
-                setNodeStatus(postStatus);
+                setNodeStatus(state, postStatus);
                 logExit(tickContext, postStatus);
                 return postStatus;
             }
         }
-        setNodeStatus(defaultIfNoBreak);
+        setNodeStatus(state, defaultIfNoBreak);
         logExit(tickContext, defaultIfNoBreak);
-        return getNodeStatus();
-    }
-
-    /**
-     * Resets this composite node and all its children to {@link NodeStatus#ENTRY}.
-     */
-    @Override
-    public void resetState() {
-        setNodeStatus(NodeStatus.ENTRY);
-        for (Node child : getChildren()) {
-            child.setNodeStatus(NodeStatus.ENTRY);
-        }
-    }
-
-    /**
-     * Gets the specific type of this node, which is the string form of its {@link NodeType}.
-     * @return the node type string
-     */
-    @Override
-    public String getSpecificType() {
-        return getNodeType().toString();
+        return getNodeStatus(state);
     }
 }
@@ -31,6 +31,17 @@ public FallbackNode(String id, Node parent) {
     @Override
     public NodeStatus tick(TickContext tickContext) {
         ensureEntry(tickContext);
-        return runChildrenLinear(tickContext, NodeStatus.SUCCESS, NodeStatus.FAILURE);
+        return resume(tickContext, FIRST_CHILD);
+    }
+
+    /**
+     * Continues the children in order at the given position.
+     * @param tickContext the tick context
+     * @param position    the position of the child to continue with
+     * @return the resulting status
+     */
+    @Override
+    public NodeStatus resume(TickContext tickContext, int position) {
+        return runChildrenLinear(tickContext, position, NodeStatus.SUCCESS, NodeStatus.FAILURE);
     }
 }
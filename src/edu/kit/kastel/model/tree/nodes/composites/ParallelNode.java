@@ -1,10 +1,13 @@
 package edu.kit.kastel.model.tree.nodes.composites;
 
 import edu.kit.kastel.model.tree.TickContext;
+import edu.kit.kastel.model.tree.TreeState;
 import edu.kit.kastel.model.tree.nodes.Node;
 import edu.kit.kastel.model.tree.nodes.NodeStatus;
 import edu.kit.kastel.model.tree.nodes.NodeType;
 
+import java.util.List;
+
 /**
  * A parallel node in a behavior tree.
  * All children are executed sequentially.
@@ -27,6 +30,14 @@ public ParallelNode(String id, Node parent, int threshold) {
         this.threshold = threshold;
     }
 
+    /**
+     * Gets the minimum number of successful children required for success.
+     * @return the success threshold
+     */
+    public int getThreshold() {
+        return threshold;
+    }
+
     /**
      * Executes all children in parallel and checks against the success threshold.
      * @param tickContext the tick context
@@ -36,12 +47,26 @@ public ParallelNode(String id, Node parent, int threshold) {
     @Override
     public NodeStatus tick(TickContext tickContext) {
         ensureEntry(tickContext);
-        for (Node child : getChildren()) {
-            if (child.getNodeStatus().isFinished()) {
+        return resume(tickContext, FIRST_CHILD);
+    }
+
+    /**
+     * Continues the children at the given position and checks against the success threshold once all finished.
+     * @param tickContext the tick context
+     * @param position    the position of the child to continue with
+     * @return the resulting status
+     */
+    @Override
+    public NodeStatus resume(TickContext tickContext, int position) {
+        TreeState state = tickContext.getState();
+        List<Node> children = getChildren();
+        for (int index = position; index < children.size(); index++) {
+            Node child = children.get(index);
+            if (child.getNodeStatus(state).isFinished()) {
                 continue;
             }
             if (child.getNodeType().isAction()) {
-                tickContext.getLadybug().getBehaviorTree().setCurrentNode(child);
+                state.suspendAt(child.getIndex());
                 tickContext.requestStop();
                 return NodeStatus.RUNNING;
             }
@@ -50,23 +75,25 @@ public NodeStatus tick(TickContext tickContext) {
                 return NodeStatus.RUNNING;
             }
         }
-        if (countSuccesses() < threshold) {
-            setNodeStatus(NodeStatus.FAILURE);
+        if (countSuccesses(state) < threshold) {
+            setNodeStatus(state, NodeStatus.FAILURE);
         } else {
-            setNodeStatus(NodeStatus.SUCCESS);
+            setNodeStatus(state, NodeStatus.SUCCESS);
         }
-        logExit(tickContext, getNodeStatus());
-        return getNodeStatus();
+        logExit(tickContext, getNodeStatus(state));
+        return getNodeStatus(state);
     }
 
     /**
      * Counts the number of child nodes that have succeeded.
+     * @param state the state of the tree
      * @return the number of successful children
      */
-    private int countSuccesses() {
+    private int countSuccesses(TreeState state) {
         int successCount = INITIAL_SUCESS_COUNT;
-        for (Node child : getChildren()) {
-            if (child.getNodeStatus() == NodeStatus.SUCCESS) {
+        List<Node> children = getChildren();
+        for (int index = 0; index < children.size(); index++) {
+            if (children.get(index).getNodeStatus(state) == NodeStatus.SUCCESS) {
                 successCount++;
             }
         }
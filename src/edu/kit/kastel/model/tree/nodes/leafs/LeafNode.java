@@ -1,12 +1,11 @@
 package edu.kit.kastel.model.tree.nodes.leafs;
 
+import edu.kit.kastel.model.tree.NodeLabel;
 import edu.kit.kastel.model.tree.TickContext;
 import edu.kit.kastel.model.tree.nodes.Node;
 import edu.kit.kastel.model.tree.nodes.NodeStatus;
 import edu.kit.kastel.model.tree.nodes.NodeType;
 
-import java.util.Map;
-
 /**
  * Base class for all leaf nodes in a behavior tree.
  * A leaf node has no children and directly produces a {@link NodeStatus} when evaluated.
@@ -18,10 +17,11 @@ public abstract class LeafNode extends Node {
      * Creates a new leaf node.
      * @param id       the node id
      * @param nodeType the type of this node
+     * @param label    the precomputed label of this node
      * @param parent   the parent node
      */
-    protected LeafNode(String id, NodeType nodeType, Node parent) {
-        super(id, nodeType, parent);
+    protected LeafNode(String id, NodeType nodeType, NodeLabel label, Node parent) {
+        super(id, nodeType, label, parent);
     }
 
     /**
@@ -40,18 +40,9 @@ protected LeafNode(String id, NodeType nodeType, Node parent) {
     @Override
     public final NodeStatus tick(TickContext tickContext) {
         NodeStatus result = evaluate(tickContext);
-        setNodeStatus(result);
+        setNodeStatus(tickContext.getState(), result);
         logExit(tickContext, result);
         return result;
     }
 
-    /**
-     * Registers this leaf node in the given node index.
-     * @param index the map of node ids to nodes
-     */
-    @Override
-    public void registerSubtree(Map<String, Node> index) {
-        index.put(getId(), this);
-    }
-
 }
@@ -1,5 +1,7 @@
 package edu.kit.kastel.model.tree.nodes.leafs.actions;
 
+import edu.kit.kastel.model.board.Position;
+import edu.kit.kastel.model.tree.NodeLabel;
 import edu.kit.kastel.model.tree.TickContext;
 import edu.kit.kastel.model.tree.nodes.Node;
 import edu.kit.kastel.model.tree.nodes.NodeStatus;
@@ -20,23 +22,19 @@ public abstract class ActionNode extends LeafNode {
      * @param id         the node id
      * @param parent     the parent node
      * @param actionType the specific action type
+     * @param positions  the positions the node refers to, which become part of its label
      */
-    protected ActionNode(String id, Node parent, ActionType actionType) {
-        super(id, NodeType.ACTION, parent);
+    protected ActionNode(String id, Node parent, ActionType actionType, Position... positions) {
+        super(id, NodeType.ACTION, NodeLabel.of(actionType.toString(), positions), parent);
         this.actionType = actionType;
     }
 
-    private ActionType getActionType() {
-        return this.actionType;
-    }
-
     /**
-     * Returns the string representation of this node's action type.
-     * @return the action type as string
+     * Gets the specific action type of this node.
+     * @return the action type
      */
-    @Override
-    public String getSpecificType() {
-        return getActionType().toString();
+    public ActionType getActionType() {
+        return this.actionType;
     }
 
     /**
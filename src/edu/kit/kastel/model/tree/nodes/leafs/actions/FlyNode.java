@@ -12,7 +12,6 @@
  * @author ujsap
  */
 public class FlyNode extends ActionNode {
-    private static final String GOAL_POSITION_FORMAT = " %d,%d";
     private final Position goal;
 
     /**
@@ -22,10 +21,18 @@ public class FlyNode extends ActionNode {
      * @param goal   the target position to fly to
      */
     public FlyNode(String id, Node parent, Position goal) {
-        super(id, parent, ActionType.FLY);
+        super(id, parent, ActionType.FLY, goal);
         this.goal = goal;
     }
 
+    /**
+     * Gets the target position of the flight.
+     * @return the goal position
+     */
+    public Position getGoal() {
+        return goal;
+    }
+
     /**
      * Executes the fly action by moving the ladybug to the goal position if possible
      * @param tickContext the tick context with board and ladybug state
@@ -34,15 +41,6 @@ public FlyNode(String id, Node parent, Position goal) {
      */
     @Override
     protected NodeStatus executeAction(TickContext tickContext) {
-        return tickContext.getLadybug().fly(
-                tickContext.getBoard(),
-                goal,
-                tickContext.getLadybugPositions()
-        ) ? NodeStatus.SUCCESS : NodeStatus.FAILURE;
-    }
-
-    @Override
-    public String getSpecificType() {
-        return super.getSpecificType() + GOAL_POSITION_FORMAT.formatted(goal.column(), goal.row());
+        return tickContext.getLadybug().fly(tickContext.getBoard(), goal) ? NodeStatus.SUCCESS : NodeStatus.FAILURE;
     }
 }
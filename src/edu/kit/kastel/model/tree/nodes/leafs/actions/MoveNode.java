@@ -29,9 +29,6 @@ public MoveNode(String id, Node parent) {
      */
     @Override
     protected NodeStatus executeAction(TickContext tickContext) {
-        return tickContext.getLadybug().moveForward(
-                tickContext.getBoard(),
-                tickContext.getLadybugPositions()
-        ) ? NodeStatus.SUCCESS : NodeStatus.FAILURE;
+        return tickContext.getLadybug().moveForward(tickContext.getBoard()) ? NodeStatus.SUCCESS : NodeStatus.FAILURE;
     }
 }
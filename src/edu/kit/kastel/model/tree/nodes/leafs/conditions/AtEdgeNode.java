@@ -3,7 +3,6 @@
 import edu.kit.kastel.model.tree.TickContext;
 import edu.kit.kastel.model.tree.nodes.Node;
 import edu.kit.kastel.model.tree.nodes.NodeStatus;
-import edu.kit.kastel.model.board.Direction;
 
 /**
  * A condition node that checks if the ladybug is at the edge of the board.
@@ -29,9 +28,7 @@ public AtEdgeNode(String id, Node parent) {
      */
     @Override
     protected NodeStatus executeCondition(TickContext tickContext) {
-        return tickContext.getBoard().neighbors(
-                tickContext.getLadybug().getPosition()
-        ).size() < Direction.values().length
+        return tickContext.getBoard().isAtEdge(tickContext.getLadybug().getPackedPosition())
                 ? NodeStatus.SUCCESS
                 : NodeStatus.FAILURE;
     }
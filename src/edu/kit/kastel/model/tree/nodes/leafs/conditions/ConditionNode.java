@@ -1,5 +1,10 @@
 package edu.kit.kastel.model.tree.nodes.leafs.conditions;
 
+import edu.kit.kastel.model.board.Board;
+import edu.kit.kastel.model.board.Ladybug;
+import edu.kit.kastel.model.board.Position;
+import edu.kit.kastel.model.tree.ConditionCache;
+import edu.kit.kastel.model.tree.NodeLabel;
 import edu.kit.kastel.model.tree.TickContext;
 import edu.kit.kastel.model.tree.nodes.Node;
 import edu.kit.kastel.model.tree.nodes.NodeStatus;
@@ -10,6 +15,8 @@
  * Base class for all condition nodes in a behavior tree.
  * A condition node checks a specific state on the board.
  * Subclasses implement the concrete check in {@link #executeCondition(TickContext)}.
+ * Results are kept in the {@link ConditionCache} of the tree and only checked again
+ * once something in the {@link ConditionReadSet read set} of the condition changed.
  * @author ujasp
  */
 public abstract class ConditionNode extends LeafNode {
@@ -20,33 +27,38 @@ public abstract class ConditionNode extends LeafNode {
      * @param id            the node id
      * @param parent        the parent node
      * @param conditionType the specific condition type
+     * @param positions     the positions the node refers to, which become part of its label
      */
-    protected ConditionNode(String id, Node parent, ConditionType conditionType) {
-        super(id, NodeType.CONDITION, parent);
+    protected ConditionNode(String id, Node parent, ConditionType conditionType, Position... positions) {
+        super(id, NodeType.CONDITION, NodeLabel.of(conditionType.toString(), positions), parent);
         this.conditionType = conditionType;
     }
 
-    private ConditionType getConditionType() {
-        return this.conditionType;
-    }
-
     /**
-     * Returns the string representation of this node's condition type.
-     * @return the condition type as string
+     * Gets the specific condition type of this node.
+     * @return the condition type
      */
-    @Override
-    public String getSpecificType() {
-        return getConditionType().toString();
+    public ConditionType getConditionType() {
+        return this.conditionType;
     }
 
     /**
-     * Evaluates this condition by calling {@link #executeCondition(TickContext)}.
+     * Evaluates this condition by looking up its cached result,
+     * or by calling {@link #executeCondition(TickContext)} if there is no valid one.
      * @param tickContext the context for this tick
      * @return the result of the condition check
      */
     @Override
     protected NodeStatus evaluate(TickContext tickContext) {
-        return executeCondition(tickContext);
+        ConditionCache cache = tickContext.getConditionCache();
+        Board board = tickContext.getBoard();
+        Ladybug ladybug = tickContext.getLadybug();
+        if (cache.contains(getIndex(), board, ladybug)) {
+            return cache.get(getIndex()) ? NodeStatus.SUCCESS : NodeStatus.FAILURE;
+        }
+        NodeStatus result = executeCondition(tickContext);
+        cache.put(getIndex(), board, ladybug, result == NodeStatus.SUCCESS);
+        return result;
     }
 
     /**
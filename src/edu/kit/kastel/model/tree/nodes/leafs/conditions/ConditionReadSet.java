@@ -0,0 +1,28 @@
+package edu.kit.kastel.model.tree.nodes.leafs.conditions;
+
+/**
+ * Represents what the result of a condition depends on, so a cached result is only computed again
+ * once something it read has changed.
+ * @author ujsap
+ */
+public enum ConditionReadSet {
+    /**
+     * The result only depends on the position of the ladybug.
+     */
+    POSITION,
+
+    /**
+     * The result depends on the position and direction of the ladybug and the cell in front of it.
+     */
+    FRONT_CELL,
+
+    /**
+     * The result depends on which cells of the board are empty.
+     */
+    EMPTY_CELLS,
+
+    /**
+     * The result depends on the position of the ladybug and on which cells of the board are empty.
+     */
+    POSITION_AND_EMPTY_CELLS
+}
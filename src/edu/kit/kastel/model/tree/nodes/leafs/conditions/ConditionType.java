@@ -8,38 +8,39 @@
 /**
  * Represents the different condition types that can be checked in a behavior tree.
  * Conditions describe the state of the environment.
+ * Every condition type declares its {@link ConditionReadSet read set}, the part of the environment it reads.
  * @author ujsap
  */
 public enum ConditionType {
     /**
      * Checks if the ladybug is at the edge of the board.
      */
-    AT_EDGE("atEdge"),
+    AT_EDGE("atEdge", ConditionReadSet.POSITION),
 
     /**
      * Checks if there is a leaf in front of the ladybug.
      */
-    LEAF_FRONT("leafFront"),
+    LEAF_FRONT("leafFront", ConditionReadSet.FRONT_CELL),
 
     /**
      * Checks if there is a tree in front of the ladybug.
      */
-    TREE_FRONT("treeFront"),
+    TREE_FRONT("treeFront", ConditionReadSet.FRONT_CELL),
 
     /**
      * Checks if there is a mushroom in front of the ladybug.
      */
-    MUSHROOM_FRONT("mushroomFront"),
+    MUSHROOM_FRONT("mushroomFront", ConditionReadSet.FRONT_CELL),
 
     /**
      * Checks if a path exists from the ladybug to a given position.
      */
-    EXISTS_PATH_TO("existsPath"),
+    EXISTS_PATH_TO("existsPath", ConditionReadSet.POSITION_AND_EMPTY_CELLS),
 
     /**
      * Checks if a path exists between two given positions.
      */
-    EXISTS_PATH_BETWEEN("existsPath");
+    EXISTS_PATH_BETWEEN("existsPath", ConditionReadSet.EMPTY_CELLS);
 
     private static final String EXISTS_PATH_TOO_MANY_COORDINATES = "existsPath can have 1 or 2 coordinates.";
     private static final int INITIAL_COUNT = 0;
@@ -55,9 +56,28 @@ public enum ConditionType {
     private static final Pattern COORDINATES_REGEX =
             Pattern.compile("-?\\d+\\s*,\\s*-?\\d+");
     private final String representation;
+    private final ConditionReadSet readSet;
 
-    ConditionType(String representation) {
+    ConditionType(String representation, ConditionReadSet readSet) {
         this.representation = representation;
+        this.readSet = readSet;
+    }
+
+    /**
+     * Gets the part of the environment conditions of this type read.
+     * @return the read set
+     */
+    public ConditionReadSet getReadSet() {
+        return readSet;
+    }
+
+    /**
+     * Checks whether this condition asks for paths on the board,
+     * so its result may change whenever any cell of the board changes.
+     * @return true for the existsPath conditions, false otherwise
+     */
+    public boolean readsPaths() {
+        return this == EXISTS_PATH_TO || this == EXISTS_PATH_BETWEEN;
     }
 
     /**
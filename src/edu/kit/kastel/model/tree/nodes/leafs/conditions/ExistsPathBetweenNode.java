@@ -3,6 +3,7 @@
 import edu.kit.kastel.model.tree.TickContext;
 import edu.kit.kastel.model.tree.nodes.Node;
 import edu.kit.kastel.model.tree.nodes.NodeStatus;
+import edu.kit.kastel.model.board.Board;
 import edu.kit.kastel.model.board.Position;
 
 /**
@@ -12,9 +13,10 @@
  * @author ujsap
  */
 public class ExistsPathBetweenNode extends ConditionNode {
-    private static final String POSITION_FORMAT = " %d,%d";
     private final Position goal;
     private final Position start;
+    private final long packedGoal;
+    private final long packedStart;
 
     /**
      * Creates a new "exists path between" condition node.
@@ -24,9 +26,27 @@ public class ExistsPathBetweenNode extends ConditionNode {
      * @param goal   the goal position
      */
     public ExistsPathBetweenNode(String id, Node parent, Position start, Position goal) {
-        super(id, parent, ConditionType.EXISTS_PATH_BETWEEN);
+        super(id, parent, ConditionType.EXISTS_PATH_BETWEEN, start, goal);
         this.goal = goal;
         this.start = start;
+        this.packedGoal = Board.pack(goal);
+        this.packedStart = Board.pack(start);
+    }
+
+    /**
+     * Gets the start position of the path.
+     * @return the start position
+     */
+    public Position getStart() {
+        return start;
+    }
+
+    /**
+     * Gets the goal position of the path.
+     * @return the goal position
+     */
+    public Position getGoal() {
+        return goal;
     }
 
     /**
@@ -37,15 +57,9 @@ public ExistsPathBetweenNode(String id, Node parent, Position start, Position go
      */
     @Override
     protected NodeStatus executeCondition(TickContext tickContext) {
-        return tickContext.getBoard().existsPath(start, goal)
+        return tickContext.getBoard().getPathQueryCache().existsPath(packedStart, packedGoal)
                 ? NodeStatus.SUCCESS
                 : NodeStatus.FAILURE;
     }
 
-    @Override
-    public String getSpecificType() {
-        return super.getSpecificType() + POSITION_FORMAT.formatted(start.column(), start.row())
-                + POSITION_FORMAT.formatted(goal.column(), goal.row());
-    }
-
 }
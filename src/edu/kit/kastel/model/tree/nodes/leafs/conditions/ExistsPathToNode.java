@@ -3,6 +3,7 @@
 import edu.kit.kastel.model.tree.TickContext;
 import edu.kit.kastel.model.tree.nodes.Node;
 import edu.kit.kastel.model.tree.nodes.NodeStatus;
+import edu.kit.kastel.model.board.Board;
 import edu.kit.kastel.model.board.Position;
 
 /**
@@ -12,8 +13,8 @@
  * @author ujsap
  */
 public class ExistsPathToNode extends ConditionNode {
-    private static final String GOAL_POSITION_FORMAT = " %d,%d";
     private final Position goal;
+    private final long packedGoal;
 
     /**
      * Creates a new "exists path to" condition node.
@@ -22,8 +23,17 @@ public class ExistsPathToNode extends ConditionNode {
      * @param goal   the goal position
      */
     public ExistsPathToNode(String id, Node parent, Position goal) {
-        super(id, parent, ConditionType.EXISTS_PATH_TO);
+        super(id, parent, ConditionType.EXISTS_PATH_TO, goal);
         this.goal = goal;
+        this.packedGoal = Board.pack(goal);
+    }
+
+    /**
+     * Gets the goal position of the path.
+     * @return the goal position
+     */
+    public Position getGoal() {
+        return goal;
     }
 
     /**
@@ -34,14 +44,9 @@ public ExistsPathToNode(String id, Node parent, Position goal) {
      */
     @Override
     protected NodeStatus executeCondition(TickContext tickContext) {
-        return tickContext.getBoard().existsPath(
-                tickContext.getLadybug().getPosition(),
-                goal
+        return tickContext.getBoard().getPathQueryCache().existsPath(
+                tickContext.getLadybug().getPackedPosition(),
+                packedGoal
         ) ? NodeStatus.SUCCESS : NodeStatus.FAILURE;
     }
-
-    @Override
-    public String getSpecificType() {
-        return super.getSpecificType() + GOAL_POSITION_FORMAT.formatted(goal.column(), goal.row());
-    }
 }
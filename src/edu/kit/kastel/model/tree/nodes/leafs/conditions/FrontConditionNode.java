@@ -30,10 +30,11 @@ protected FrontConditionNode(String id, Node parent, ConditionType conditionType
      *         {@link NodeStatus#FAILURE} otherwise
      */
     protected final NodeStatus executeFrontCell(TickContext tickContext, CellType expected) {
-        if (!tickContext.getBoard().isWithinBounds(tickContext.getLadybug().getCellInFront())) {
+        long front = tickContext.getLadybug().getPackedCellInFront();
+        if (!tickContext.getBoard().isWithinBounds(front)) {
             return NodeStatus.FAILURE;
         }
-        return tickContext.getBoard().getCellType(tickContext.getLadybug().getCellInFront()) == expected
+        return tickContext.getBoard().getCellType(front) == expected
                 ? NodeStatus.SUCCESS
                 : NodeStatus.FAILURE;
     }
@@ -21,6 +21,7 @@ public class Arguments {
     public static final String ERROR_TOO_FEW_ARGUMENTS = "too few arguments";
     private static final String ERROR_NOT_A_NUMBER_FORMAT = "'%s' must be an integer.";
     private static final String ERROR_NOT_POSITIVE_FORMAT = "'%d' must be positive.";
+    private static final String ERROR_UNKNOWN_FLAG_FORMAT = "'%s' is not a valid option.";
     private static final String ARGUMENT_JOIN_DELIMITER = " ";
     private final String[] arguments;
     private int argumentIndex;
@@ -79,6 +80,23 @@ public int parsePositive() throws InvalidArgumentException {
         return value;
     }
 
+    /**
+     * Parses an optional flag, which is either the given word or no further argument.
+     * @param flag the word of the flag
+     * @return {@code true} if the flag is given, {@code false} if all arguments have been consumed
+     * @throws InvalidArgumentException if the next argument is not the flag
+     */
+    public boolean parseOptionalFlag(String flag) throws InvalidArgumentException {
+        if (isExhausted()) {
+            return false;
+        }
+        String argument = retrieveArgument();
+        if (!argument.equals(flag)) {
+            throw new InvalidArgumentException(ERROR_UNKNOWN_FLAG_FORMAT.formatted(argument));
+        }
+        return true;
+    }
+
     /**
      * Parses all remaining arguments into a single string representing a new node.
      * This is used when parsing the arguments for an add sibling command.
@@ -4,6 +4,8 @@
 
 package edu.kit.kastel.view;
 
+import java.io.PrintStream;
+
 /**
  * This interface represents a command that can be executed to handle the given value.
  * @param <T> the type of the value to be handled
@@ -30,4 +32,15 @@
      * @return the result of the command execution
      */
     Result execute(T handle);
+
+    /**
+     * Executes the command to handle the given value, printing any output that precedes the result to the given
+     * stream. Commands that echo their input while executing override this method; the default ignores the stream.
+     * @param handle the value to be handled
+     * @param output the stream for output printed while executing
+     * @return the result of the command execution
+     */
+    default Result execute(T handle, PrintStream output) {
+        return execute(handle);
+    }
 }
\ No newline at end of file
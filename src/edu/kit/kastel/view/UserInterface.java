@@ -126,7 +126,7 @@ private <S, T extends Keyword<S>> void handleCommand(S value, String[] arguments
             this.errorStream.println(ERROR_TOO_MANY_ARGUMENTS);
             return;
         }
-        handleResult(providedCommand.execute(value));
+        handleResult(providedCommand.execute(value, this.defaultStream));
     }
 
     private void handleResult(Result result) {
@@ -0,0 +1,54 @@
+package edu.kit.kastel.view.commands;
+
+import edu.kit.kastel.model.Game;
+import edu.kit.kastel.model.exceptions.TreeParserException;
+import edu.kit.kastel.view.Command;
+import edu.kit.kastel.view.Result;
+import edu.kit.kastel.view.exceptions.AllActionsEnabledException;
+import edu.kit.kastel.view.exceptions.InvalidArgumentException;
+import edu.kit.kastel.view.util.FilesReader;
+
+import java.util.List;
+
+/**
+ * Command to apply an edit script from a file to a ladybug's behavior tree.
+ * The edits of the script are applied as one batch, so if any edit fails, the tree remains unchanged.
+ * @author ujsap
+ */
+public class EditTreeCommand implements Command<Game> {
+    private final int ladybugID;
+    private final String path;
+
+    /**
+     * Creates a new EditTreeCommand.
+     * @param ladybugID the id of the ladybug whose tree will be modified
+     * @param path      the path of the file containing the edit script
+     */
+    public EditTreeCommand(int ladybugID, String path) {
+        this.ladybugID = ladybugID;
+        this.path = path;
+    }
+
+    /**
+     * Executes the command: reads the edit script and applies it to the tree.
+     * @param handle the game instance on which to execute the command
+     * @return a {@link Result} indicating success or failure
+     */
+    @Override
+    public Result execute(Game handle) {
+        if (handle.areActionsBlocked()) {
+            return Result.error(new AllActionsEnabledException().getMessage());
+        }
+
+        if (!handle.getLadybug(ladybugID).getIfActive()) {
+            return Result.error(new InvalidArgumentException(COULD_NOT_FIND_LADYBUG_ERROR).getMessage());
+        }
+        try {
+            List<String> script = FilesReader.readInputFile(path);
+            handle.editTree(ladybugID, script);
+        } catch (TreeParserException | InvalidArgumentException e) {
+            return Result.error(e.getMessage());
+        }
+        return Result.success();
+    }
+}
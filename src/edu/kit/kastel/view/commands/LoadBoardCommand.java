@@ -6,40 +6,66 @@
 import edu.kit.kastel.view.exceptions.InvalidArgumentException;
 import edu.kit.kastel.view.Result;
 import edu.kit.kastel.view.util.FilesReader;
-import edu.kit.kastel.view.util.PrintHelpers;
 
-import java.util.List;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
 
 /**
  * Command to load a board into the game.
- * The board is read from a given input file and then initialized in the game.
+ * The board is streamed from a given input file and then initialized in the game,
+ * so even huge board files are never held in memory as a whole.
  * Any previously loaded board is replaced.
  * @author Programmieren-Team
  * @author ujsap
  */
 public class LoadBoardCommand implements Command<Game> {
-    private final List<String> inputLines;
+    private static final String WRONG_FILE_FORMAT_ERROR = "file format is not correct";
+    private static final int NO_LINES = 0;
+    private final Path file;
 
     /**
-     * Creates a new LoadBoardCommand and reads the given board file.
+     * Creates a new LoadBoardCommand for the given board file.
      * @param file the path to the board file
      * @throws InvalidArgumentException if the file cannot be read
      */
     public LoadBoardCommand(String file) throws InvalidArgumentException {
-        this.inputLines = FilesReader.readInputFile(file.trim());
+        this.file = FilesReader.resolveInputFile(file.trim());
     }
 
     /**
-     * Executes the command: loads the board into the game.
+     * Executes the command: loads the board into the game without printing the board definition.
      * @param handle the game instance
-     * @return a {@link Result} containing the verbatim board definition on success,
-     *         or an error result if parsing fails
+     * @return a {@link Result} indicating success, or an error result if reading or parsing fails
      */
     @Override
     public Result execute(Game handle) {
-        System.out.println(PrintHelpers.prepareVerbatimPrint(inputLines));
+        return execute(handle, new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    /**
+     * Executes the command: loads the board into the game.
+     * The board definition is printed verbatim line by line before it is parsed.
+     * The definition is echoed in a read of its own on purpose: it has to be printed completely even if it is
+     * invalid, while the parser stops at the first defect. Every read holds only a small part of the file
+     * in memory at a time, and the later ones are usually served from the file cache of the operating system.
+     * @param handle the game instance
+     * @param output the stream the board definition is printed to
+     * @return a {@link Result} indicating success, or an error result if reading or parsing fails
+     */
+    @Override
+    public Result execute(Game handle, PrintStream output) {
         try {
-            handle.loadBoard(inputLines);
+            if (FilesReader.forEachLine(file, output::println) == NO_LINES) {
+                output.println();
+            }
+            try (FileChannel channel = FileChannel.open(file)) {
+                handle.loadBoard(channel);
+            }
+        } catch (IOException e) {
+            return Result.error(WRONG_FILE_FORMAT_ERROR);
         } catch (BoardParserException e) {
             return Result.error(e.getMessage());
         }
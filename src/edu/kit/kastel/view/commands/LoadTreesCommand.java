@@ -11,6 +11,8 @@
 import edu.kit.kastel.view.util.FilesReader;
 import edu.kit.kastel.view.util.PrintHelpers;
 
+import java.io.OutputStream;
+import java.io.PrintStream;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -38,6 +40,16 @@ public LoadTreesCommand(List<String> files) {
         this.files = Collections.unmodifiableList(files);
     }
 
+    /**
+     * Loads trees from the given files and assigns them to free ladybugs without printing the files.
+     * @param handle the game instance
+     * @return {@link Result#success()} on success; otherwise an error result containing the message
+     */
+    @Override
+    public Result execute(Game handle) {
+        return execute(handle, new PrintStream(OutputStream.nullOutputStream()));
+    }
+
     /**
      * Loads trees from the given files and assigns them to free ladybugs.
      * Requires the board to be loaded first, otherwise fails.
@@ -45,10 +57,11 @@ public LoadTreesCommand(List<String> files) {
      * Parses trees file-by-file, while parsing, if any file fails, nothing is committed.
      * On success, assigns all parsed trees to the next free ladybugs and marks them active.
      * @param handle the game instance
+     * @param output the stream the files are printed to
      * @return {@link Result#success()} on success; otherwise an error result containing the message
      */
     @Override
-    public Result execute(Game handle) {
+    public Result execute(Game handle, PrintStream output) {
         List<BehaviorTree> allTrees = new ArrayList<>();
         int assigned = INITIAL_NUMBER_OF_ASSIGNED_LADYBUGS;
 
@@ -64,7 +77,7 @@ public Result execute(Game handle) {
         try {
             for (String file : files) {
                 List<String> lines = FilesReader.readInputFile(file);
-                System.out.println(PrintHelpers.prepareVerbatimPrint(lines));
+                output.println(PrintHelpers.prepareVerbatimPrint(lines));
 
                 List<Ladybug> freeLadybugs = handle.getInitialLadybugs()
                         .subList(assigned, handle.getInitialLadybugs().size());
@@ -22,6 +22,10 @@ public enum ModelKeyword implements Keyword<Game> {
      */
     ADD_SIBLING(arguments -> new AddSiblingCommand(
             arguments.parsePositive(), arguments.parseString(), arguments.parseNewNode())),
+    /**
+     * The keyword for the {@link EditTreeCommand edit} command.
+     */
+    EDIT_TREE(arguments -> new EditTreeCommand(arguments.parsePositive(), arguments.parseString())),
     /**
      * The keyword for the {@link HeadCommand move} command.
      */
@@ -57,7 +61,12 @@ public enum ModelKeyword implements Keyword<Game> {
     /**
      * The keyword for the {@link ResetTreeCommand pass} command.
      */
-    RESET_TREE(arguments -> new ResetTreeCommand(arguments.parsePositive()));
+    RESET_TREE(arguments -> new ResetTreeCommand(arguments.parsePositive())),
+    /**
+     * The keyword for the {@link RunCommand run} command.
+     */
+    RUN(arguments -> new RunCommand(arguments.parsePositive(),
+            arguments.parseOptionalFlag(RunCommand.PRINT_BOARD_FLAG)));
 
     private static final String VALUE_NAME_DELIMITER = "_";
     private final CommandProvider<Game> provider;
@@ -1,7 +1,7 @@
 package edu.kit.kastel.view.commands;
 
 import edu.kit.kastel.model.Game;
-import edu.kit.kastel.model.tree.TraceEntry;
+import edu.kit.kastel.model.tree.Trace;
 import edu.kit.kastel.model.board.Ladybug;
 import edu.kit.kastel.view.exceptions.AllActionsEnabledException;
 import edu.kit.kastel.view.Command;
@@ -42,12 +42,14 @@ public Result execute(Game handle) {
             }
         }
         StringJoiner joiner = new StringJoiner(System.lineSeparator());
-        for (Ladybug ladybug : ladybugsToTick) {
-            for (TraceEntry traceEntry : handle.singleNextAction(ladybug.getId()).getEntries()) {
-                joiner.add(TraceEntriesPrinter.format(traceEntry));
-            }
-            joiner.add(PrintHelpers.prepareRenderedBoard(handle.getBoard(), ladybugsToTick));
-        }
+        handle.nextRound((ladybug, trace) -> addTick(joiner, trace, handle, ladybugsToTick));
         return Result.success(joiner.toString());
     }
+
+    private static void addTick(StringJoiner joiner, Trace trace, Game handle, List<Ladybug> ladybugsToTick) {
+        for (int index = 0; index < trace.size(); index++) {
+            joiner.add(TraceEntriesPrinter.format(trace.getEntry(index)));
+        }
+        joiner.add(PrintHelpers.prepareRenderedBoard(handle.getBoard(), ladybugsToTick));
+    }
 }
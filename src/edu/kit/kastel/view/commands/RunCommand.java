@@ -0,0 +1,65 @@
+package edu.kit.kastel.view.commands;
+
+import edu.kit.kastel.model.Game;
+import edu.kit.kastel.model.board.Ladybug;
+import edu.kit.kastel.view.Command;
+import edu.kit.kastel.view.Result;
+import edu.kit.kastel.view.exceptions.AllActionsEnabledException;
+import edu.kit.kastel.view.util.PrintHelpers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringJoiner;
+
+/**
+ * Command to run a number of rounds without printing the single ticks.
+ * It prints a summary of the run and, if requested, the board after the last round.
+ * @author ujsap
+ */
+public class RunCommand implements Command<Game> {
+
+    /**
+     * The optional argument that requests printing the final board.
+     */
+    public static final String PRINT_BOARD_FLAG = "board";
+    private static final String SUMMARY_FORMAT = "%d rounds, %d ticks";
+    private final int rounds;
+    private final boolean printBoard;
+
+    /**
+     * Creates a new RunCommand.
+     * @param rounds     the number of rounds to run
+     * @param printBoard whether the board is printed after the last round
+     */
+    public RunCommand(int rounds, boolean printBoard) {
+        this.rounds = rounds;
+        this.printBoard = printBoard;
+    }
+
+    /**
+     * Executes the command: runs the rounds and summarizes them.
+     * @param handle the game instance
+     * @return a {@link Result} containing the summary and optionally the rendered board,
+     *         or an error result if actions are not enabled
+     */
+    @Override
+    public Result execute(Game handle) {
+        if (handle.areActionsBlocked()) {
+            return Result.error(new AllActionsEnabledException().getMessage());
+        }
+        long ticks = handle.runRounds(rounds);
+
+        StringJoiner joiner = new StringJoiner(System.lineSeparator());
+        joiner.add(SUMMARY_FORMAT.formatted(rounds, ticks));
+        if (printBoard) {
+            List<Ladybug> activeLadybugs = new ArrayList<>();
+            for (Ladybug ladybug : handle.listLadybugs()) {
+                if (ladybug.getIfActive()) {
+                    activeLadybugs.add(ladybug);
+                }
+            }
+            joiner.add(PrintHelpers.prepareRenderedBoard(handle.getBoard(), activeLadybugs));
+        }
+        return Result.success(joiner.toString());
+    }
+}
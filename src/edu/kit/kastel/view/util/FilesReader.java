@@ -2,12 +2,14 @@
 
 import edu.kit.kastel.view.exceptions.InvalidArgumentException;
 
+import java.io.BufferedReader;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.InvalidPathException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Utility class for reading input files that describe boards and trees.
@@ -39,4 +41,42 @@ public static List<String> readInputFile(String path) throws InvalidArgumentExce
             throw new InvalidArgumentException(PATH_NOT_FOUND_ERROR);
         }
     }
+
+    /**
+     * Resolves the given path to an input file without reading it.
+     * @param path the path to the input file
+     * @return the resolved file
+     * @throws InvalidArgumentException if the path is invalid or the file cannot be read
+     */
+    public static Path resolveInputFile(String path) throws InvalidArgumentException {
+        try {
+            Path file = Paths.get(path);
+            if (!Files.isReadable(file)) {
+                throw new InvalidArgumentException(WRONG_FILE_FORMAT_ERROR);
+            }
+            return file;
+        } catch (InvalidPathException e) {
+            throw new InvalidArgumentException(PATH_NOT_FOUND_ERROR);
+        }
+    }
+
+    /**
+     * Reads the given file line by line and passes every line to the consumer,
+     * so only one line is held in memory at a time.
+     * @param file     the file to read
+     * @param consumer the consumer receiving the lines in order
+     * @return the number of lines read
+     * @throws IOException if the file cannot be read
+     */
+    public static int forEachLine(Path file, Consumer<String> consumer) throws IOException {
+        int count = 0;
+        try (BufferedReader reader = Files.newBufferedReader(file)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                consumer.accept(line);
+                count++;
+            }
+        }
+        return count;
+    }
 }
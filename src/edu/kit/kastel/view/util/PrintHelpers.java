@@ -5,9 +5,7 @@
 import edu.kit.kastel.model.board.Position;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 /**
  * Utility class for preparing output of boards, trees, and positions.
@@ -78,29 +76,28 @@ private static List<String> renderWithBorders(Board board, List<Ladybug> ladybug
         int rows = board.rows();
         int columns = board.columns();
 
-        Map<Position, Character> ladybugByPosition = new HashMap<>();
+        char[][] rowCharacters = new char[rows][];
+        for (int row = 0; row < rows; row++) {
+            rowCharacters[row] = new char[columns + BORDER_EXTRA_COLUMNS];
+            rowCharacters[row][0] = BORDER_VERTICAL;
+            for (int column = 0; column < columns; column++) {
+                rowCharacters[row][column + VIEW_INDEX_SHIFT] = board.getCellType(Board.pack(column, row)).toChar();
+            }
+            rowCharacters[row][columns + VIEW_INDEX_SHIFT] = BORDER_VERTICAL;
+        }
         for (Ladybug ladybug : ladybugs) {
-            ladybugByPosition.put(ladybug.getPosition(), ladybug.getDirection().toChar());
+            long position = ladybug.getPackedPosition();
+            rowCharacters[Board.rowOf(position)][Board.columnOf(position) + VIEW_INDEX_SHIFT] =
+                    ladybug.getDirection().toChar();
         }
 
         List<String> outputBoard = new ArrayList<>(rows + EXTRA_LENGTH_FOR_BORDERS);
         String border = THREE_PARTS_UPPER_BORDER_FORMAT.formatted(
                 BORDER_CORNER, String.valueOf(BORDER_HORIZONTAL).repeat(columns), BORDER_CORNER);
         outputBoard.add(border);
-
-        for (int row = 0; row < rows; row++) {
-            StringBuilder stringBuilder = new StringBuilder(
-                    columns + BORDER_EXTRA_COLUMNS).append(BORDER_VERTICAL);
-            for (int column = 0; column < columns; column++) {
-                Position position = new Position(column, row);
-                char character = ladybugByPosition.getOrDefault(position, board.getCellType(position).toChar());
-                stringBuilder.append(character);
-            }
-            stringBuilder.append(BORDER_VERTICAL);
-            outputBoard.add(stringBuilder.toString());
-
+        for (char[] row : rowCharacters) {
+            outputBoard.add(new String(row));
         }
-
         outputBoard.add(border);
         return outputBoard;
     }
@@ -0,0 +1,87 @@
+package edu.kit.kastel.model;
+
+import edu.kit.kastel.model.board.Board;
+import edu.kit.kastel.model.board.CellStorageType;
+import edu.kit.kastel.model.board.CellType;
+import edu.kit.kastel.model.board.Ladybug;
+import edu.kit.kastel.model.exceptions.BoardParserException;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests how the {@link Game} restores the board it loaded.
+ * @author ujsap
+ */
+class GameTest {
+
+    private static final long SEED = 10;
+    private static final int RESETS = 20;
+    private static final int MAXIMUM_CHANGES = 40;
+    private static final int MAXIMUM_MOVES = 10;
+    private static final List<String> BOARD = List.of(
+        "..#.o.",
+        ".^..*.",
+        "o...>.",
+        "..##..",
+        "v...o."
+    );
+    private static final CellType[] CELL_TYPES = CellType.values();
+
+    /**
+     * Committing trees rolls the board and the ladybugs back to the loaded state on every storage,
+     * after the cells changed, some of them several times, and the ladybugs moved and pushed mushrooms.
+     * @throws BoardParserException if the test board is invalid
+     */
+    @Test
+    void committingTreesRestoresTheLoadedBoard() throws BoardParserException {
+        for (CellStorageType storageType : CellStorageType.values()) {
+            Game game = new Game();
+            game.setCellStorageType(storageType);
+            game.loadBoard(BOARD);
+            Board loaded = game.getBoard().copy();
+            Random random = new Random(SEED);
+            for (int reset = 0; reset < RESETS; reset++) {
+                Board board = game.getBoard();
+                for (int move = random.nextInt(MAXIMUM_MOVES); move >= 0; move--) {
+                    Ladybug ladybug = game.getLadybug(1 + random.nextInt(game.listLadybugs().size()));
+                    if (random.nextBoolean()) {
+                        ladybug.turnRight();
+                    }
+                    ladybug.moveForward(board);
+                }
+                for (int change = random.nextInt(MAXIMUM_CHANGES); change >= 0; change--) {
+                    long position = Board.pack(random.nextInt(board.columns()), random.nextInt(board.rows()));
+                    if (!board.isOccupied(position)) {
+                        board.setCellType(position, CELL_TYPES[random.nextInt(CELL_TYPES.length)]);
+                    }
+                }
+                game.commitTrees(List.of());
+                assertLoaded(game, loaded, "%s reset %d".formatted(storageType, reset));
+            }
+        }
+    }
+
+    private static void assertLoaded(Game game, Board loaded, String message) {
+        Board board = game.getBoard();
+        for (int row = 0; row < loaded.rows(); row++) {
+            for (int column = 0; column < loaded.columns(); column++) {
+                long position = Board.pack(column, row);
+                assertEquals(loaded.getCellType(position), board.getCellType(position),
+                        "%s cell (%d, %d)".formatted(message, column, row));
+                assertEquals(loaded.getOccupant(position), board.getOccupant(position),
+                        "%s occupant of (%d, %d)".formatted(message, column, row));
+            }
+        }
+        List<Ladybug> initial = game.getInitialLadybugs();
+        assertEquals(initial.size(), game.listLadybugs().size(), message);
+        for (Ladybug expected : initial) {
+            Ladybug actual = game.getLadybug(expected.getId());
+            assertEquals(expected.getPosition(), actual.getPosition(), message);
+            assertEquals(expected.getDirection(), actual.getDirection(), message);
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package edu.kit.kastel.model;
+
+import edu.kit.kastel.model.board.Board;
+import edu.kit.kastel.model.board.Ladybug;
+import edu.kit.kastel.model.exceptions.BoardParserException;
+import edu.kit.kastel.model.exceptions.TreeParserException;
+import edu.kit.kastel.model.tree.BehaviorTree;
+import edu.kit.kastel.model.tree.Trace;
+import edu.kit.kastel.model.tree.TreeEngine;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Differential test of the {@link RoundEngine#PARALLEL} round engine against the {@link RoundEngine#SEQUENTIAL} one.
+ * Both engines run the same random trees on the same crowded random boards, so ladybugs keep walking into each other
+ * and many plans become invalid before they are committed. Trees also ask for paths, whose plans are replayed
+ * whenever an earlier ladybug of the round changed a cell. After every round, the trace of every tick,
+ * the board after every tick and the poses of all ladybugs must be equal.
+ * @author ujsap
+ */
+class ParallelRoundTest {
+
+    private static final long SEED = 20240723L;
+    private static final int ROUNDS = 40;
+    private static final int STEPS = 30;
+    private static final int MINIMUM_SIZE = 3;
+    private static final int SIZE_RANGE = 16;
+    // more ladybugs than one planning task takes, so the planning is split across the pool
+    private static final int MAXIMUM_LADYBUGS = 200;
+    private static final int LADYBUG_ODDS = 3;
+    private static final int MAXIMUM_CHILDREN = 4;
+    private static final int MAXIMUM_DEPTH = 3;
+    private static final int COMPOSITE_ODDS = 3;
+    private static final int MAXIMUM_PARALLEL_THRESHOLD = 3;
+    private static final int PROMOTION_THRESHOLD = 2;
+    private static final int OPERATIONS = 12;
+    private static final String CELL_SYMBOLS = "....#*o";
+    private static final String LADYBUG_SYMBOLS = "^>v<";
+    private static final String[] LEAVES = {
+        "[move]", "[turnLeft]", "[turnRight]", "[takeLeaf]", "[placeLeaf]", "[fly %d,%d]",
+        "([atEdge])", "([leafFront])", "([treeFront])", "([mushroomFront])",
+        "([existsPath %d,%d])", "([existsPath %d,%d %d,%d])"
+    };
+
+    private Random random;
+    private int rows;
+    private int columns;
+    private int nextNode;
+
+    private enum Operation {
+        ROUND, RESET, JUMP, ADD_SIBLING
+    }
+
+    /**
+     * Runs rounds on both engines, mixed with resets, jumps and added siblings.
+     * @throws BoardParserException if a generated board is invalid
+     * @throws TreeParserException if a generated tree is invalid
+     */
+    @Test
+    void roundsMatchSequentialEngine() throws BoardParserException, TreeParserException {
+        for (int round = 0; round < ROUNDS; round++) {
+            runRound(round);
+        }
+    }
+
+    private void runRound(int round) throws BoardParserException, TreeParserException {
+        random = new Random(SEED * ROUNDS + round);
+        rows = MINIMUM_SIZE + random.nextInt(SIZE_RANGE);
+        columns = MINIMUM_SIZE + random.nextInt(SIZE_RANGE);
+        List<String> board = randomBoard();
+        int ladybugs = (int) String.join("", board).chars()
+                .filter(symbol -> LADYBUG_SYMBOLS.indexOf(symbol) >= 0).count();
+
+        nextNode = 0;
+        List<List<String>> trees = new ArrayList<>();
+        List<List<String>> nodeIds = new ArrayList<>();
+        for (int tree = 0; tree < ladybugs; tree++) {
+            List<String> ids = new ArrayList<>();
+            trees.add(randomTree(tree, ids));
+            nodeIds.add(ids);
+        }
+
+        TreeEngine treeEngine = TreeEngine.values()[random.nextInt(TreeEngine.values().length)];
+        Game sequential = newGame(RoundEngine.SEQUENTIAL, treeEngine, board, trees);
+        Game parallel = newGame(RoundEngine.PARALLEL, treeEngine, board, trees);
+        for (int step = 0; step < STEPS; step++) {
+            int ladybug = 1 + random.nextInt(ladybugs);
+            Operation operation = randomOperation();
+            long operationSeed = random.nextLong();
+            String expected = apply(sequential, operation, ladybug, step, nodeIds, new Random(operationSeed));
+            String actual = apply(parallel, operation, ladybug, step, nodeIds, new Random(operationSeed));
+            assertEquals(expected, actual, "round %d step %d %s with the %s engine on %d ladybugs"
+                    .formatted(round, step, operation, treeEngine, ladybugs));
+            if (operation == Operation.ADD_SIBLING) {
+                nodeIds.get(ladybug - 1).add(siblingId(step));
+            }
+        }
+    }
+
+    private Operation randomOperation() {
+        return switch (random.nextInt(OPERATIONS)) {
+            case 0 -> Operation.RESET;
+            case 1 -> Operation.JUMP;
+            case 2 -> Operation.ADD_SIBLING;
+            default -> Operation.ROUND;
+        };
+    }
+
+    private static Game newGame(RoundEngine roundEngine, TreeEngine treeEngine, List<String> board,
+                                List<List<String>> trees) throws BoardParserException, TreeParserException {
+        Game game = new Game();
+        game.setRoundEngine(roundEngine);
+        game.setTreeEngine(treeEngine);
+        game.setPromotionThreshold(PROMOTION_THRESHOLD);
+        game.loadBoard(board);
+        List<BehaviorTree> allTrees = new ArrayList<>();
+        for (List<String> tree : trees) {
+            List<Ladybug> freeLadybugs = game.getInitialLadybugs().subList(allTrees.size(),
+                    game.getInitialLadybugs().size());
+            allTrees.addAll(game.loadTreeFile(tree, freeLadybugs));
+        }
+        game.commitTrees(allTrees);
+        return game;
+    }
+
+    private String apply(Game game, Operation operation, int ladybug, int step, List<List<String>> nodeIds,
+                         Random operationRandom) throws TreeParserException {
+        List<String> ids = nodeIds.get(ladybug - 1);
+        StringBuilder result = new StringBuilder();
+        switch (operation) {
+            case RESET -> game.resetTree(ladybug);
+            case JUMP -> game.jumpTo(ladybug, ids.get(operationRandom.nextInt(ids.size())));
+            case ADD_SIBLING -> {
+                // the root has no siblings
+                String existing = ids.get(1 + operationRandom.nextInt(ids.size() - 1));
+                String leaf = operationRandom.nextBoolean() ? "[takeLeaf]" : "([existsPath 1,1])";
+                game.addSibling(ladybug, existing, siblingId(step) + leaf);
+            }
+            case ROUND -> game.nextRound((each, trace) -> appendTick(game, each, trace, result));
+        }
+        appendState(game, result);
+        return result.toString();
+    }
+
+    private void appendTick(Game game, Ladybug ladybug, Trace trace, StringBuilder result) {
+        result.append(ladybug.getId()).append(':');
+        for (int entry = 0; entry < trace.size(); entry++) {
+            result.append(trace.getEntry(entry)).append('\n');
+        }
+        appendState(game, result);
+        result.append('\n');
+    }
+
+    private void appendState(Game game, StringBuilder result) {
+        Board board = game.getBoard();
+        for (int y = 0; y < rows; y++) {
+            for (int x = 0; x < columns; x++) {
+                result.append(board.getCellType(Board.pack(x, y)).toChar());
+            }
+        }
+        for (Ladybug each : game.listLadybugs()) {
+            result.append(' ').append(each.getPosition()).append(each.getDirection());
+        }
+    }
+
+    private static String siblingId(int step) {
+        return "S" + step;
+    }
+
+    private List<String> randomBoard() {
+        List<String> board = new ArrayList<>();
+        int ladybugs = 0;
+        for (int y = 0; y < rows; y++) {
+            StringBuilder row = new StringBuilder();
+            for (int x = 0; x < columns; x++) {
+                if (random.nextInt(LADYBUG_ODDS) == 0 && ladybugs < MAXIMUM_LADYBUGS) {
+                    row.append(LADYBUG_SYMBOLS.charAt(random.nextInt(LADYBUG_SYMBOLS.length())));
+                    ladybugs++;
+                } else {
+                    row.append(CELL_SYMBOLS.charAt(random.nextInt(CELL_SYMBOLS.length())));
+                }
+            }
+            board.add(row.toString());
+        }
+        if (ladybugs == 0) {
+            board.set(0, LADYBUG_SYMBOLS.charAt(1) + board.get(0).substring(1));
+        }
+        return board;
+    }
+
+    private List<String> randomTree(int tree, List<String> ids) {
+        String root = "N" + nextNode++;
+        ids.add(root);
+        List<String> body = new ArrayList<>();
+        addChildren(root, 0, body, ids);
+        body.set(0, body.get(0).replaceFirst("^    " + root, "    " + root + randomComposite()));
+        List<String> lines = new ArrayList<>();
+        lines.add("flowchart TD");
+        lines.addAll(body);
+        lines.add("    " + root + " --> Z" + tree + "[move]");
+        return lines;
+    }
+
+    private void addChildren(String parent, int depth, List<String> lines, List<String> ids) {
+        int children = 1 + random.nextInt(MAXIMUM_CHILDREN);
+        for (int child = 0; child < children; child++) {
+            String id = "N" + nextNode++;
+            ids.add(id);
+            boolean composite = depth < MAXIMUM_DEPTH && random.nextInt(COMPOSITE_ODDS) == 0;
+            lines.add("    " + parent + " --> " + id + (composite ? randomComposite() : randomLeaf()));
+            if (composite) {
+                addChildren(id, depth + 1, lines, ids);
+            }
+        }
+    }
+
+    private String randomComposite() {
+        return switch (random.nextInt(COMPOSITE_ODDS)) {
+            case 0 -> "[->]";
+            case 1 -> "[?]";
+            default -> "[=" + (1 + random.nextInt(MAXIMUM_PARALLEL_THRESHOLD)) + ">]";
+        };
+    }
+
+    private String randomLeaf() {
+        return LEAVES[random.nextInt(LEAVES.length)]
+                .formatted(random.nextInt(columns + 1), random.nextInt(rows + 1),
+                        random.nextInt(columns), random.nextInt(rows));
+    }
+}
@@ -0,0 +1,125 @@
+package edu.kit.kastel.model.board;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests the cell accessors and the change journal of the {@link Board}.
+ * @author ujsap
+ */
+class BoardTest {
+
+    private static final int ROWS = 3;
+    private static final int COLUMNS = 4;
+    private static final long SEED = 9;
+    private static final int BOARDS = 40;
+    private static final int MAXIMUM_SIZE = 10;
+    private static final int ATTEMPTS = 5;
+    private static final int MAXIMUM_CHANGES = 60;
+    private static final int REPEATS = 4;
+    private static final int PATH_QUERIES = 50;
+    private static final CellType[] CELL_TYPES = CellType.values();
+
+    /**
+     * Positions outside of the board are rejected instead of wrapping into a neighbouring row.
+     */
+    @Test
+    void rejectsPositionsOutsideOfTheBoard() {
+        Board board = new Board(new PackedCellStorage(ROWS, COLUMNS));
+        board.setCellType(Board.pack(0, 1), CellType.TREE);
+        assertEquals(CellType.TREE, board.getCellType(new Position(0, 1)));
+
+        Position[] outside = {
+            new Position(COLUMNS, 0), new Position(-1, 1), new Position(0, ROWS), new Position(0, -1)
+        };
+        for (Position position : outside) {
+            assertThrows(IndexOutOfBoundsException.class, () -> board.getCellType(position));
+            assertThrows(IndexOutOfBoundsException.class,
+                    () -> board.getCellType(Board.pack(position.column(), position.row())));
+            assertThrows(IndexOutOfBoundsException.class, () -> board.setCellType(position, CellType.LEAF));
+            assertThrows(IndexOutOfBoundsException.class,
+                    () -> board.setCellType(Board.pack(position.column(), position.row()), CellType.LEAF));
+        }
+        assertEquals(CellType.TREE, board.getCellType(new Position(0, 1)));
+    }
+
+    /**
+     * Rolling back to a checkpoint restores the board as it was at the checkpoint on every storage,
+     * even if cells changed several times, and the path queries agree with the restored cells.
+     */
+    @Test
+    void rollbackRestoresTheCheckpointOnEveryStorage() {
+        for (CellStorageType storageType : CellStorageType.values()) {
+            Random random = new Random(SEED);
+            for (int round = 0; round < BOARDS; round++) {
+                Board board = new Board(storageType.create(1 + random.nextInt(MAXIMUM_SIZE),
+                        1 + random.nextInt(MAXIMUM_SIZE)));
+                changeRandomCells(random, board);
+                // builds the connectivity index, which the rollback has to keep up to date
+                board.existsPath(Board.pack(0, 0), Board.pack(0, 0));
+                int loaded = board.checkpoint();
+                Board snapshot = board.copy();
+                for (int attempt = 0; attempt < ATTEMPTS; attempt++) {
+                    changeRandomCells(random, board);
+                    int inner = board.checkpoint();
+                    Board innerSnapshot = board.copy();
+                    changeRandomCells(random, board);
+                    board.rollbackTo(inner);
+                    String message = "%s round %d attempt %d".formatted(storageType, round, attempt);
+                    assertSameBoard(innerSnapshot, board, random, "inner " + message);
+                    board.rollbackTo(loaded);
+                    assertSameBoard(snapshot, board, random, message);
+                }
+            }
+        }
+    }
+
+    /**
+     * A checkpoint that was undone by rolling back further is rejected.
+     */
+    @Test
+    void rejectsCheckpointsOutsideOfTheJournal() {
+        Board board = new Board(new PackedCellStorage(ROWS, COLUMNS));
+        assertThrows(IllegalArgumentException.class, () -> board.rollbackTo(0));
+        int first = board.checkpoint();
+        board.setCellType(Board.pack(0, 0), CellType.TREE);
+        int second = board.checkpoint();
+        board.setCellType(Board.pack(1, 0), CellType.TREE);
+        board.rollbackTo(first);
+        assertThrows(IllegalArgumentException.class, () -> board.rollbackTo(second + 1));
+        assertEquals(CellType.EMPTY, board.getCellType(Board.pack(0, 0)));
+        assertEquals(CellType.EMPTY, board.getCellType(Board.pack(1, 0)));
+    }
+
+    private static void changeRandomCells(Random random, Board board) {
+        int changes = random.nextInt(MAXIMUM_CHANGES);
+        for (int change = 0; change < changes; change++) {
+            long position = Board.pack(random.nextInt(board.columns()), random.nextInt(board.rows()));
+            // the same cell changes several times in a row, only its first change may be journaled
+            for (int repeat = random.nextInt(REPEATS); repeat >= 0; repeat--) {
+                board.setCellType(position, CELL_TYPES[random.nextInt(CELL_TYPES.length)]);
+            }
+        }
+    }
+
+    private static void assertSameBoard(Board expected, Board actual, Random random, String message) {
+        for (int row = 0; row < expected.rows(); row++) {
+            for (int column = 0; column < expected.columns(); column++) {
+                long position = Board.pack(column, row);
+                assertEquals(expected.getCellType(position), actual.getCellType(position),
+                        "%s cell (%d, %d)".formatted(message, column, row));
+            }
+        }
+        Board search = expected.copy();
+        search.setPathQueryMode(PathQueryMode.SEARCH);
+        for (int query = 0; query < PATH_QUERIES; query++) {
+            long from = Board.pack(random.nextInt(expected.columns()), random.nextInt(expected.rows()));
+            long to = Board.pack(random.nextInt(expected.columns()), random.nextInt(expected.rows()));
+            assertEquals(search.existsPath(from, to), actual.existsPath(from, to), message + " path");
+        }
+    }
+}
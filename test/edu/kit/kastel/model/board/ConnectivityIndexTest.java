@@ -0,0 +1,136 @@
+package edu.kit.kastel.model.board;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Randomized test of the incremental {@link ConnectivityIndex}.
+ * Every board is changed cell by cell, and after each change the path queries of the board
+ * must agree with a plain breadth-first search over the current cells.
+ * @author ujsap
+ */
+class ConnectivityIndexTest {
+
+    private static final long SEED = 11;
+    private static final int BOARDS = 300;
+    private static final int MAPPED_BOARDS = 30;
+    private static final int CHANGES = 150;
+    private static final int MAXIMUM_SIZE = 12;
+    private static final int BLOCKED_ODDS = 3;
+    private static final int NO_COMPONENT = -1;
+    private static final CellType[] BLOCKING_TYPES = {CellType.TREE, CellType.LEAF, CellType.MUSHROOM};
+
+    /**
+     * Splits, joins and changes between blocking cell types keep the index equal to a fresh search.
+     */
+    @Test
+    void pathsMatchBreadthFirstSearchAfterEveryChange() {
+        runRounds(CellStorageType.PACKED, BOARDS);
+    }
+
+    /**
+     * The index of a memory-mapped board keeps its component ids in a memory-mapped layer and behaves the same.
+     */
+    @Test
+    void mappedIndexMatchesBreadthFirstSearch() {
+        runRounds(CellStorageType.MEMORY_MAPPED, MAPPED_BOARDS);
+    }
+
+    private static void runRounds(CellStorageType storageType, int boards) {
+        Random random = new Random(SEED);
+        for (int round = 0; round < boards; round++) {
+            int rows = 1 + random.nextInt(MAXIMUM_SIZE);
+            int columns = 1 + random.nextInt(MAXIMUM_SIZE);
+            Board board = new Board(storageType.create(rows, columns));
+            for (int row = 0; row < rows; row++) {
+                for (int column = 0; column < columns; column++) {
+                    board.setCellType(Board.pack(column, row), randomCellType(random));
+                }
+            }
+            assertPathsMatch(board, "round %d before any change".formatted(round));
+            for (int change = 0; change < CHANGES; change++) {
+                long position = Board.pack(random.nextInt(columns), random.nextInt(rows));
+                board.setCellType(position, randomCellType(random));
+                assertPathsMatch(board, "round %d change %d".formatted(round, change));
+            }
+        }
+    }
+
+    private static CellType randomCellType(Random random) {
+        return random.nextInt(BLOCKED_ODDS) == 0
+                ? BLOCKING_TYPES[random.nextInt(BLOCKING_TYPES.length)] : CellType.EMPTY;
+    }
+
+    private static void assertPathsMatch(Board board, String message) {
+        int rows = board.rows();
+        int columns = board.columns();
+        int[] components = components(board);
+        // the first cell of every component stands for the whole component
+        long[] representatives = new long[rows * columns];
+        int componentCount = 0;
+        for (int cell = 0; cell < components.length; cell++) {
+            if (components[cell] == componentCount) {
+                representatives[componentCount++] = Board.pack(cell % columns, cell / columns);
+            }
+        }
+        for (int cell = 0; cell < components.length; cell++) {
+            long position = Board.pack(cell % columns, cell / columns);
+            if (components[cell] == NO_COMPONENT) {
+                assertFalse(board.existsPath(position, representatives[0]), message);
+                continue;
+            }
+            assertTrue(board.existsPath(position, representatives[components[cell]]), message);
+        }
+        for (int first = 0; first < componentCount; first++) {
+            for (int second = first + 1; second < componentCount; second++) {
+                assertFalse(board.existsPath(representatives[first], representatives[second]), message);
+            }
+        }
+    }
+
+    private static int[] components(Board board) {
+        int rows = board.rows();
+        int columns = board.columns();
+        int[] components = new int[rows * columns];
+        Arrays.fill(components, NO_COMPONENT);
+        int next = 0;
+        Queue<Integer> queue = new ArrayDeque<>();
+        for (int start = 0; start < components.length; start++) {
+            if (components[start] != NO_COMPONENT || !isEmpty(board, start, columns)) {
+                continue;
+            }
+            components[start] = next;
+            queue.add(start);
+            while (!queue.isEmpty()) {
+                int cell = queue.remove();
+                int row = cell / columns;
+                int column = cell % columns;
+                for (Direction direction : Direction.values()) {
+                    int neighborRow = row + direction.getDeltaRow();
+                    int neighborColumn = column + direction.getDeltaColumn();
+                    if (neighborRow < 0 || neighborRow >= rows || neighborColumn < 0 || neighborColumn >= columns) {
+                        continue;
+                    }
+                    int neighbor = neighborRow * columns + neighborColumn;
+                    if (components[neighbor] == NO_COMPONENT && isEmpty(board, neighbor, columns)) {
+                        components[neighbor] = next;
+                        queue.add(neighbor);
+                    }
+                }
+            }
+            next++;
+        }
+        return components;
+    }
+
+    private static boolean isEmpty(Board board, int cell, int columns) {
+        return board.getCellType(Board.pack(cell % columns, cell / columns)) == CellType.EMPTY;
+    }
+}
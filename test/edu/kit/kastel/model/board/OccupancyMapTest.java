@@ -0,0 +1,76 @@
+package edu.kit.kastel.model.board;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares the {@link OccupancyMap} with a {@link HashMap} under random insertions, replacements and removals.
+ * @author ujsap
+ */
+class OccupancyMapTest {
+
+    private static final long SEED = 12;
+    private static final int ROUNDS = 50;
+    private static final int OPERATIONS = 5_000;
+    // a small range of cells keeps the probe runs long, so removals have to move many entries back
+    private static final int MAXIMUM_CELLS = 200;
+    private static final int MAXIMUM_LADYBUG_ID = 1_000;
+    private static final int LARGE_CELL = Integer.MAX_VALUE - 1;
+
+    /**
+     * Every lookup agrees with the reference map, and a copy is independent of the original.
+     */
+    @Test
+    void matchesHashMap() {
+        Random random = new Random(SEED);
+        for (int round = 0; round < ROUNDS; round++) {
+            OccupancyMap occupants = new OccupancyMap();
+            Map<Integer, Integer> expected = new HashMap<>();
+            int cells = 1 + random.nextInt(MAXIMUM_CELLS);
+            for (int operation = 0; operation < OPERATIONS; operation++) {
+                int cell = random.nextInt(cells);
+                if (random.nextBoolean()) {
+                    int ladybugID = 1 + random.nextInt(MAXIMUM_LADYBUG_ID);
+                    occupants.put(cell, ladybugID);
+                    expected.put(cell, ladybugID);
+                } else {
+                    occupants.remove(cell);
+                    expected.remove(cell);
+                }
+            }
+            assertSame(expected, occupants, cells, "round " + round);
+
+            OccupancyMap copy = occupants.copy();
+            for (int cell = 0; cell < cells; cell++) {
+                copy.remove(cell);
+            }
+            assertSame(expected, occupants, cells, "original of round " + round);
+            assertSame(Map.of(), copy, cells, "emptied copy of round " + round);
+        }
+    }
+
+    /**
+     * The last possible cell index is a valid key.
+     */
+    @Test
+    void acceptsLargestCellIndex() {
+        OccupancyMap occupants = new OccupancyMap();
+        occupants.put(LARGE_CELL, 1);
+        assertEquals(1, occupants.get(LARGE_CELL));
+        occupants.remove(LARGE_CELL);
+        assertEquals(OccupancyMap.NO_OCCUPANT, occupants.get(LARGE_CELL));
+    }
+
+    private static void assertSame(Map<Integer, Integer> expected, OccupancyMap occupants, int cells,
+                                   String message) {
+        for (int cell = 0; cell < cells; cell++) {
+            assertEquals(expected.getOrDefault(cell, OccupancyMap.NO_OCCUPANT), occupants.get(cell),
+                    "%s cell %d".formatted(message, cell));
+        }
+    }
+}
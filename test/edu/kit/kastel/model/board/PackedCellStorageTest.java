@@ -0,0 +1,95 @@
+package edu.kit.kastel.model.board;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests the two-bit packing of {@link CellPacking} and the {@link PackedCellStorage} built on it.
+ * @author ujsap
+ */
+class PackedCellStorageTest {
+
+    private static final CellType[] CELL_TYPES = CellType.values();
+    private static final int WORDS = 3;
+    private static final int SEED = 7;
+    private static final int ROWS = 13;
+    private static final int COLUMNS = 17;
+    private static final int WRITES = 10_000;
+
+    /**
+     * Every cell type survives a round trip through every cell around the word boundaries,
+     * without touching the cells next to it.
+     */
+    @Test
+    void cellPackingRoundTripsAtWordBoundaries() {
+        int[] boundaryCells = {
+            0, 1, CellPacking.CELLS_PER_WORD - 1, CellPacking.CELLS_PER_WORD, CellPacking.CELLS_PER_WORD + 1,
+            2 * CellPacking.CELLS_PER_WORD - 1, 2 * CellPacking.CELLS_PER_WORD, WORDS * CellPacking.CELLS_PER_WORD - 1
+        };
+        for (CellType background : CELL_TYPES) {
+            for (CellType cellType : CELL_TYPES) {
+                for (int cell : boundaryCells) {
+                    long[] words = new long[WORDS];
+                    Arrays.fill(words, CellPacking.filledWord(background));
+                    CellPacking.write(words, cell, cellType);
+                    for (int other = 0; other < WORDS * CellPacking.CELLS_PER_WORD; other++) {
+                        assertEquals(other == cell ? cellType : background, CellPacking.read(words, other),
+                                "cell %d after writing %s to cell %d".formatted(other, cellType, cell));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * The word count covers partially filled words.
+     */
+    @Test
+    void wordCountRoundsUp() {
+        assertEquals(0, CellPacking.wordCount(0));
+        assertEquals(1, CellPacking.wordCount(1));
+        assertEquals(1, CellPacking.wordCount(CellPacking.CELLS_PER_WORD));
+        assertEquals(2, CellPacking.wordCount(CellPacking.CELLS_PER_WORD + 1));
+    }
+
+    /**
+     * Random writes read back like in a plain array, and a copy is independent of the original.
+     */
+    @Test
+    void storageMatchesPlainArray() {
+        Random random = new Random(SEED);
+        PackedCellStorage storage = new PackedCellStorage(ROWS, COLUMNS);
+        CellType[] expected = new CellType[ROWS * COLUMNS];
+        Arrays.fill(expected, CellType.EMPTY);
+        assertCells(expected, storage);
+
+        for (int write = 0; write < WRITES; write++) {
+            int cell = random.nextInt(expected.length);
+            CellType cellType = CELL_TYPES[random.nextInt(CELL_TYPES.length)];
+            storage.set(cell, cellType);
+            expected[cell] = cellType;
+        }
+        assertCells(expected, storage);
+
+        PackedCellStorage copy = storage.copy();
+        CellType[] copied = expected.clone();
+        for (int cell = 0; cell < expected.length; cell++) {
+            copy.set(cell, CELL_TYPES[(copied[cell].ordinal() + 1) % CELL_TYPES.length]);
+            copied[cell] = copy.get(cell);
+        }
+        assertCells(expected, storage);
+        assertCells(copied, copy);
+    }
+
+    private static void assertCells(CellType[] expected, CellStorage storage) {
+        assertEquals(ROWS, storage.rows());
+        assertEquals(COLUMNS, storage.columns());
+        for (int cell = 0; cell < expected.length; cell++) {
+            assertEquals(expected[cell], storage.get(cell), "cell " + cell);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package edu.kit.kastel.model.board;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares the unidirectional and the bidirectional {@link PathSearch} with a plain breadth-first search.
+ * @author ujsap
+ */
+class PathSearchTest {
+
+    private static final long SEED = 5;
+    private static final int BOARDS = 200;
+    private static final int MAPPED_BOARDS = 20;
+    private static final int QUERIES = 200;
+    private static final int MAXIMUM_SIZE = 30;
+    private static final int BLOCKED_ODDS = 3;
+    // each query takes two generations, so the counter wraps around every few queries
+    private static final int MINIMUM_LAST_GENERATION = 2;
+    private static final int LAST_GENERATION_RANGE = 8;
+
+    /**
+     * Both modes answer random queries on random boards like a plain search.
+     */
+    @Test
+    void bothModesMatchPlainSearch() {
+        Random random = new Random(SEED);
+        for (int round = 0; round < BOARDS; round++) {
+            CellStorage cells = randomCells(random);
+            runQueries(random, cells, new PathSearch(cells), "round " + round);
+        }
+    }
+
+    /**
+     * Searches keep matching while the generation counter wraps around again and again,
+     * which only works if the wraparound resets the visited stamps.
+     */
+    @Test
+    void bothModesMatchPlainSearchAcrossGenerationWraparound() {
+        Random random = new Random(SEED);
+        for (int round = 0; round < BOARDS; round++) {
+            CellStorage cells = randomCells(random);
+            int lastGeneration = MINIMUM_LAST_GENERATION + random.nextInt(LAST_GENERATION_RANGE);
+            runQueries(random, cells, new PathSearch(cells, lastGeneration), "wrapping round " + round);
+        }
+    }
+
+    /**
+     * On a memory-mapped storage the visited stamps live in a memory-mapped layer, which the wraparound clears.
+     */
+    @Test
+    void mappedSearchMatchesPlainSearchAcrossGenerationWraparound() {
+        Random random = new Random(SEED);
+        for (int round = 0; round < MAPPED_BOARDS; round++) {
+            CellStorage cells = randomCells(random, CellStorageType.MEMORY_MAPPED);
+            int lastGeneration = MINIMUM_LAST_GENERATION + random.nextInt(LAST_GENERATION_RANGE);
+            runQueries(random, cells, new PathSearch(cells, lastGeneration), "mapped round " + round);
+        }
+    }
+
+    private static CellStorage randomCells(Random random) {
+        return randomCells(random, CellStorageType.PACKED);
+    }
+
+    private static CellStorage randomCells(Random random, CellStorageType storageType) {
+        CellStorage cells = storageType.create(1 + random.nextInt(MAXIMUM_SIZE), 1 + random.nextInt(MAXIMUM_SIZE));
+        for (int cell = 0; cell < cells.rows() * cells.columns(); cell++) {
+            if (random.nextInt(BLOCKED_ODDS) == 0) {
+                cells.set(cell, CellType.TREE);
+            }
+        }
+        return cells;
+    }
+
+    private static void runQueries(Random random, CellStorage cells, PathSearch search, String message) {
+        int cellCount = cells.rows() * cells.columns();
+        for (int query = 0; query < QUERIES; query++) {
+            int start = random.nextInt(cellCount);
+            int goal = random.nextInt(cellCount);
+            if (cells.get(start) != CellType.EMPTY || cells.get(goal) != CellType.EMPTY) {
+                continue;
+            }
+            boolean expected = reachable(cells, start, goal);
+            boolean bidirectional = random.nextBoolean();
+            assertEquals(expected, search.existsPath(start, goal, bidirectional), "%s query %d from %d to %d, %s"
+                    .formatted(message, query, start, goal, bidirectional ? "bidirectional" : "unidirectional"));
+        }
+    }
+
+    private static boolean reachable(CellStorage cells, int start, int goal) {
+        int rows = cells.rows();
+        int columns = cells.columns();
+        boolean[] seen = new boolean[rows * columns];
+        Queue<Integer> queue = new ArrayDeque<>();
+        seen[start] = true;
+        queue.add(start);
+        while (!queue.isEmpty()) {
+            int cell = queue.remove();
+            if (cell == goal) {
+                return true;
+            }
+            for (Direction direction : Direction.values()) {
+                int row = cell / columns + direction.getDeltaRow();
+                int column = cell % columns + direction.getDeltaColumn();
+                if (row < 0 || row >= rows || column < 0 || column >= columns) {
+                    continue;
+                }
+                int neighbor = row * columns + column;
+                if (!seen[neighbor] && cells.get(neighbor) == CellType.EMPTY) {
+                    seen[neighbor] = true;
+                    queue.add(neighbor);
+                }
+            }
+        }
+        return false;
+    }
+}
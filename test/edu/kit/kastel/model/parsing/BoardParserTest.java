@@ -0,0 +1,138 @@
+package edu.kit.kastel.model.parsing;
+
+import edu.kit.kastel.model.board.Board;
+import edu.kit.kastel.model.board.Ladybug;
+import edu.kit.kastel.model.exceptions.BoardParserException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks that the {@link BoardParser} reads a board from a seekable channel and from a plain readable channel
+ * exactly like from the list of its lines, with the same cells, the same ladybugs and the same errors.
+ * @author ujsap
+ */
+class BoardParserTest {
+
+    private static final long SEED = 8;
+    private static final int RANDOM_BOARDS = 300;
+    private static final int MAXIMUM_SIZE = 8;
+    private static final int DEFECT_ODDS = 4;
+    private static final String SYMBOLS = "#*o.^>v<";
+    private static final String BAD_SYMBOLS = "x \t";
+    private static final String[] LINE_ENDINGS = {"\n", "\r\n", "\r"};
+    private static final String[][] BOARDS = {
+        {"#.*", ".^o", "..>"},
+        {"<"},
+        {"..#.", "v.", "...."},
+        {"..#.", "....", "v"},
+        {"..", ".x", "^."},
+        {"x.", "^."},
+        {"..", "^", ".y"},
+        {"....", "^...", ""},
+        {"#..", "..#"},
+        {"^.#.", "..##", "o*.."},
+    };
+
+    @TempDir
+    private Path directory;
+
+    /**
+     * Valid boards, short rows, bad symbols and boards without ladybugs parse alike with every line ending,
+     * with and without a final line ending.
+     * @throws IOException if the temporary file cannot be written
+     */
+    @Test
+    void channelsMatchLinesForEveryLineEnding() throws IOException {
+        for (String[] rows : BOARDS) {
+            for (String lineEnding : LINE_ENDINGS) {
+                assertSameOutcome(String.join(lineEnding, rows));
+                assertSameOutcome(String.join(lineEnding, rows) + lineEnding);
+            }
+        }
+        assertSameOutcome("");
+    }
+
+    /**
+     * Random boards, some of them with several defects at once, parse alike.
+     * @throws IOException if the temporary file cannot be written
+     */
+    @Test
+    void channelsMatchLinesOnRandomBoards() throws IOException {
+        Random random = new Random(SEED);
+        for (int round = 0; round < RANDOM_BOARDS; round++) {
+            int rows = 1 + random.nextInt(MAXIMUM_SIZE);
+            int columns = 1 + random.nextInt(MAXIMUM_SIZE);
+            StringBuilder text = new StringBuilder();
+            for (int row = 0; row < rows; row++) {
+                int length = random.nextInt(DEFECT_ODDS) == 0 ? random.nextInt(MAXIMUM_SIZE + 1) : columns;
+                for (int column = 0; column < length; column++) {
+                    text.append(random.nextInt(DEFECT_ODDS * MAXIMUM_SIZE) == 0
+                            ? BAD_SYMBOLS.charAt(random.nextInt(BAD_SYMBOLS.length()))
+                            : SYMBOLS.charAt(random.nextInt(SYMBOLS.length())));
+                }
+                if (row < rows - 1 || random.nextBoolean()) {
+                    text.append(LINE_ENDINGS[random.nextInt(LINE_ENDINGS.length)]);
+                }
+            }
+            assertSameOutcome(text.toString());
+        }
+    }
+
+    private void assertSameOutcome(String text) throws IOException {
+        String message = "board %s".formatted(text.replace("\r", "\\r").replace("\n", "\\n"));
+        BoardParser parser = new BoardParser();
+        String expected = outcome(ladybugs -> parser.parseBoard(text.lines().toList(), ladybugs));
+
+        byte[] bytes = text.getBytes(StandardCharsets.ISO_8859_1);
+        Path file = Files.write(directory.resolve("board.txt"), bytes);
+        try (FileChannel channel = FileChannel.open(file)) {
+            assertEquals(expected, outcome(ladybugs -> parser.parseBoard(channel, ladybugs)), "seekable " + message);
+        }
+        assertEquals(expected, outcome(ladybugs ->
+                parser.parseBoard(Channels.newChannel(new ByteArrayInputStream(bytes)), ladybugs)),
+                "readable " + message);
+    }
+
+    private static String outcome(Parse parse) throws IOException {
+        List<Ladybug> ladybugs = new ArrayList<>();
+        Board board;
+        try {
+            board = parse.parse(ladybugs);
+        } catch (BoardParserException e) {
+            return "error: " + e.getMessage();
+        }
+        StringBuilder outcome = new StringBuilder();
+        for (int row = 0; row < board.rows(); row++) {
+            for (int column = 0; column < board.columns(); column++) {
+                outcome.append(board.getCellType(Board.pack(column, row)).toChar());
+            }
+            outcome.append('\n');
+        }
+        for (Ladybug ladybug : ladybugs) {
+            outcome.append("%d at %s facing %s%n".formatted(ladybug.getId(), ladybug.getPosition(),
+                    ladybug.getDirection()));
+        }
+        return outcome.toString();
+    }
+
+    /**
+     * One of the ways to parse a board.
+     */
+    @FunctionalInterface
+    private interface Parse {
+        Board parse(List<Ladybug> ladybugs) throws BoardParserException, IOException;
+    }
+}
@@ -0,0 +1,95 @@
+package edu.kit.kastel.model.parsing;
+
+import edu.kit.kastel.model.board.Board;
+import edu.kit.kastel.model.board.CellType;
+import edu.kit.kastel.model.board.Direction;
+import edu.kit.kastel.model.board.Ladybug;
+import edu.kit.kastel.model.board.Position;
+import edu.kit.kastel.model.exceptions.TreeParserException;
+import edu.kit.kastel.model.tree.BehaviorTree;
+import edu.kit.kastel.model.tree.nodes.Node;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests how the {@link TreeParser} shares the definitions of trees parsed from the same file.
+ * @author ujsap
+ */
+class TreeParserTest {
+
+    private static final int SIZE = 3;
+    private static final List<String> TREE = List.of(
+        "flowchart TD",
+        "    A[->] --> B[turnLeft]",
+        "    A --> C[turnRight]",
+        "    A --> D[move]"
+    );
+    private static final String SIBLING = "E[takeLeaf]";
+    private static final String SIBLING_ID = "E";
+
+    /**
+     * Two trees loaded from the same file content share their definition, but each one keeps its own state,
+     * and editing one of them neither changes the other nor trees loaded later.
+     * @throws TreeParserException if the test tree is invalid
+     */
+    @Test
+    void treesFromOneFileShareDefinitionButNotState() throws TreeParserException {
+        TreeParser parser = new TreeParser();
+        BehaviorTree first = parser.parse(new ArrayList<>(TREE), ladybugs()).getFirst();
+        BehaviorTree second = parser.parse(new ArrayList<>(TREE), ladybugs()).getFirst();
+        assertSame(rootOf(first), rootOf(second));
+
+        String initialHead = second.head().getId();
+        Ladybug ladybug = ladybugs().getFirst();
+        first.tick(ladybug, new Board(emptyCells()));
+        assertNotEquals(initialHead, first.head().getId());
+        assertEquals(initialHead, second.head().getId());
+
+        first.addSibling("B", parser.parseSingleNode(SIBLING));
+        assertTrue(first.hasNode(SIBLING_ID));
+        assertFalse(second.hasNode(SIBLING_ID));
+        BehaviorTree third = parser.parse(new ArrayList<>(TREE), ladybugs()).getFirst();
+        assertFalse(third.hasNode(SIBLING_ID));
+        assertSame(rootOf(second), rootOf(third));
+    }
+
+    /**
+     * Files that differ in a single line do not share their definitions.
+     * @throws TreeParserException if the test trees are invalid
+     */
+    @Test
+    void differentFilesDoNotShareDefinitions() throws TreeParserException {
+        TreeParser parser = new TreeParser();
+        List<String> changed = new ArrayList<>(TREE);
+        changed.set(changed.size() - 1, "    A --> D[placeLeaf]");
+        BehaviorTree original = parser.parse(TREE, ladybugs()).getFirst();
+        BehaviorTree other = parser.parse(changed, ladybugs()).getFirst();
+        assertNotSame(rootOf(original), rootOf(other));
+    }
+
+    private static Node rootOf(BehaviorTree tree) {
+        return tree.findNodeByID(tree.getRootID());
+    }
+
+    private static List<Ladybug> ladybugs() {
+        return List.of(new Ladybug(1, new Position(1, 1), Direction.UP));
+    }
+
+    private static CellType[][] emptyCells() {
+        CellType[][] cells = new CellType[SIZE][SIZE];
+        for (CellType[] row : cells) {
+            Arrays.fill(row, CellType.EMPTY);
+        }
+        return cells;
+    }
+}
@@ -0,0 +1,60 @@
+package edu.kit.kastel.model.tree;
+
+import edu.kit.kastel.model.Game;
+import edu.kit.kastel.model.exceptions.BoardParserException;
+import edu.kit.kastel.model.exceptions.TreeParserException;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests the counters of the {@link ConditionCache} as exposed by {@link BehaviorTree#getConditionCache()}.
+ * @author ujsap
+ */
+class ConditionCacheTest {
+
+    private static final int LADYBUG_ID = 1;
+    private static final int TICKS = 10;
+    // the ladybug faces a tree and only turns on the spot, so the condition never changes
+    private static final List<String> BOARD = List.of(
+            ">#",
+            "..");
+    private static final List<String> TREE = List.of(
+            "flowchart TD",
+            "    A[->] --> B([treeFront])",
+            "    A --> C[turnLeft]",
+            "    A --> D[turnRight]");
+
+    /**
+     * Repeated evaluations of an unchanged condition are answered from the cache,
+     * and the counters keep counting after the tree is edited.
+     */
+    @Test
+    void countsHitsAcrossEdits() throws BoardParserException, TreeParserException {
+        Game game = new Game();
+        game.loadBoard(BOARD);
+        game.commitTrees(game.loadTreeFile(TREE, game.getInitialLadybugs()));
+        BehaviorTree tree = game.getLadybug(LADYBUG_ID).getBehaviorTree();
+
+        for (int tick = 0; tick < TICKS; tick++) {
+            game.singleNextAction(LADYBUG_ID);
+        }
+        long hits = tree.getConditionCache().getHits();
+        long misses = tree.getConditionCache().getMisses();
+        assertEquals(1, misses);
+        assertTrue(hits > 0);
+
+        game.editTree(LADYBUG_ID, List.of("append A E([treeFront])"));
+        assertEquals(hits, tree.getConditionCache().getHits());
+        assertEquals(misses, tree.getConditionCache().getMisses());
+        for (int tick = 0; tick < TICKS; tick++) {
+            game.singleNextAction(LADYBUG_ID);
+        }
+        // the edited tree starts with an empty cache, so both conditions miss once
+        assertEquals(misses + 2, tree.getConditionCache().getMisses());
+        assertTrue(tree.getConditionCache().getHits() > hits);
+    }
+}
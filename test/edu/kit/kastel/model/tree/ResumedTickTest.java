@@ -0,0 +1,245 @@
+package edu.kit.kastel.model.tree;
+
+import edu.kit.kastel.model.Game;
+import edu.kit.kastel.model.board.Board;
+import edu.kit.kastel.model.board.Ladybug;
+import edu.kit.kastel.model.exceptions.BoardParserException;
+import edu.kit.kastel.model.exceptions.TreeParserException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Lockstep test of resumed ticks. Two games run the same random trees on the same random boards; in one of them,
+ * every tree has to walk down from the root before each operation, while the other one resumes its ticks wherever
+ * it can. Resets, jumps, added siblings, edit scripts and engine switches are mixed in, since all of them change
+ * where the next tick may resume. After every operation the traces, the boards and the poses of all ladybugs
+ * must be equal.
+ * @author ujsap
+ */
+class ResumedTickTest {
+
+    private static final long SEED = 20240805L;
+    private static final int ROUNDS = 300;
+    private static final int STEPS = 200;
+    private static final int MINIMUM_SIZE = 2;
+    private static final int SIZE_RANGE = 6;
+    private static final int MAXIMUM_LADYBUGS = 3;
+    private static final int LADYBUG_ODDS = 6;
+    private static final int MAXIMUM_CHILDREN = 4;
+    private static final int MAXIMUM_DEPTH = 3;
+    private static final int COMPOSITE_ODDS = 3;
+    private static final int MAXIMUM_PARALLEL_THRESHOLD = 3;
+    private static final int PROMOTION_THRESHOLD = 5;
+    private static final int OPERATIONS = 20;
+    private static final String CELL_SYMBOLS = "....#*o";
+    private static final String LADYBUG_SYMBOLS = "^>v<";
+    private static final String[] LEAVES = {
+        "[move]", "[turnLeft]", "[turnRight]", "[takeLeaf]", "[placeLeaf]", "[fly %d,%d]",
+        "([atEdge])", "([leafFront])", "([treeFront])", "([mushroomFront])",
+        "([existsPath %d,%d])", "([existsPath %d,%d %d,%d])"
+    };
+
+    private Random random;
+    private int rows;
+    private int columns;
+    private int nextNode;
+    private int resumedTicks;
+
+    private enum Operation {
+        TICK, RESET, JUMP, SWITCH_ENGINE, ADD_SIBLING, EDIT, HEAD
+    }
+
+    /**
+     * Resumed ticks behave exactly like ticks that walk down from the root, with every engine.
+     * @throws BoardParserException if a generated board is invalid
+     * @throws TreeParserException if a generated tree is invalid
+     */
+    @Test
+    void resumedTicksMatchWalksFromTheRoot() throws BoardParserException, TreeParserException {
+        resumedTicks = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            runRound(round);
+        }
+        assertTrue(resumedTicks > 0, "no tick could resume");
+    }
+
+    private void runRound(int round) throws BoardParserException, TreeParserException {
+        random = new Random(SEED * ROUNDS + round);
+        rows = MINIMUM_SIZE + random.nextInt(SIZE_RANGE);
+        columns = MINIMUM_SIZE + random.nextInt(SIZE_RANGE);
+        List<String> board = randomBoard();
+        int ladybugs = (int) String.join("", board).chars()
+                .filter(symbol -> LADYBUG_SYMBOLS.indexOf(symbol) >= 0).count();
+
+        nextNode = 0;
+        List<List<String>> trees = new ArrayList<>();
+        List<List<String>> nodeIds = new ArrayList<>();
+        for (int tree = 0; tree < ladybugs; tree++) {
+            List<String> ids = new ArrayList<>();
+            trees.add(randomTree(tree, ids));
+            nodeIds.add(ids);
+        }
+
+        TreeEngine engine = TreeEngine.values()[random.nextInt(TreeEngine.values().length)];
+        Game fromRoot = newGame(engine, board, trees);
+        Game resumed = newGame(engine, board, trees);
+        for (int step = 0; step < STEPS; step++) {
+            int ladybug = 1 + random.nextInt(ladybugs);
+            Operation operation = randomOperation();
+            long operationSeed = random.nextLong();
+            for (Ladybug each : fromRoot.listLadybugs()) {
+                if (each.getBehaviorTree().endSuspension()) {
+                    resumedTicks++;
+                }
+            }
+            String expected = apply(fromRoot, operation, ladybug, step, nodeIds, new Random(operationSeed));
+            String actual = apply(resumed, operation, ladybug, step, nodeIds, new Random(operationSeed));
+            assertEquals(expected, actual, "round %d step %d %s on ladybug %d with the %s engine"
+                    .formatted(round, step, operation, ladybug, engine));
+            if (operation == Operation.ADD_SIBLING || operation == Operation.EDIT) {
+                nodeIds.get(ladybug - 1).add(newId(step));
+            }
+        }
+    }
+
+    private Operation randomOperation() {
+        return switch (random.nextInt(OPERATIONS)) {
+            case 0 -> Operation.RESET;
+            case 1 -> Operation.JUMP;
+            case 2 -> Operation.SWITCH_ENGINE;
+            case 3 -> Operation.ADD_SIBLING;
+            case 4 -> Operation.EDIT;
+            case 5 -> Operation.HEAD;
+            default -> Operation.TICK;
+        };
+    }
+
+    private static Game newGame(TreeEngine engine, List<String> board, List<List<String>> trees)
+            throws BoardParserException, TreeParserException {
+        Game game = new Game();
+        game.setTreeEngine(engine);
+        game.setPromotionThreshold(PROMOTION_THRESHOLD);
+        game.loadBoard(board);
+        List<BehaviorTree> allTrees = new ArrayList<>();
+        for (List<String> tree : trees) {
+            List<Ladybug> freeLadybugs = game.getInitialLadybugs().subList(allTrees.size(),
+                    game.getInitialLadybugs().size());
+            allTrees.addAll(game.loadTreeFile(tree, freeLadybugs));
+        }
+        game.commitTrees(allTrees);
+        return game;
+    }
+
+    private String apply(Game game, Operation operation, int ladybug, int step, List<List<String>> nodeIds,
+                         Random operationRandom) throws TreeParserException {
+        List<String> ids = nodeIds.get(ladybug - 1);
+        StringBuilder result = new StringBuilder();
+        switch (operation) {
+            case RESET -> game.resetTree(ladybug);
+            case JUMP -> game.jumpTo(ladybug, ids.get(operationRandom.nextInt(ids.size())));
+            case SWITCH_ENGINE -> game.setTreeEngine(
+                    TreeEngine.values()[operationRandom.nextInt(TreeEngine.values().length)]);
+            case ADD_SIBLING -> {
+                // the root has no siblings
+                String existing = ids.get(1 + operationRandom.nextInt(ids.size() - 1));
+                String leaf = operationRandom.nextBoolean() ? "[move]" : "([treeFront])";
+                game.addSibling(ladybug, existing, newId(step) + leaf);
+            }
+            case EDIT -> {
+                // inserts a new node and moves it somewhere else, both edits in one batch
+                String anchor = ids.get(1 + operationRandom.nextInt(ids.size() - 1));
+                String target = ids.get(1 + operationRandom.nextInt(ids.size() - 1));
+                String leaf = operationRandom.nextBoolean() ? "[turnLeft]" : "([atEdge])";
+                game.editTree(ladybug, List.of("insert %s %s%s".formatted(anchor, newId(step), leaf),
+                        "move %s %s".formatted(newId(step), target)));
+            }
+            case HEAD -> result.append("head ").append(game.head(ladybug).getId());
+            case TICK -> {
+                for (TraceEntry entry : game.singleNextAction(ladybug).getEntries()) {
+                    result.append(entry).append('\n');
+                }
+            }
+        }
+        Board board = game.getBoard();
+        for (int y = 0; y < rows; y++) {
+            for (int x = 0; x < columns; x++) {
+                result.append(board.getCellType(Board.pack(x, y)).toChar());
+            }
+        }
+        for (Ladybug each : game.listLadybugs()) {
+            result.append(' ').append(each.getPosition()).append(each.getDirection());
+        }
+        return result.toString();
+    }
+
+    private static String newId(int step) {
+        return "S" + step;
+    }
+
+    private List<String> randomBoard() {
+        List<String> board = new ArrayList<>();
+        int ladybugs = 0;
+        for (int y = 0; y < rows; y++) {
+            StringBuilder row = new StringBuilder();
+            for (int x = 0; x < columns; x++) {
+                if (random.nextInt(LADYBUG_ODDS) == 0 && ladybugs < MAXIMUM_LADYBUGS) {
+                    row.append(LADYBUG_SYMBOLS.charAt(random.nextInt(LADYBUG_SYMBOLS.length())));
+                    ladybugs++;
+                } else {
+                    row.append(CELL_SYMBOLS.charAt(random.nextInt(CELL_SYMBOLS.length())));
+                }
+            }
+            board.add(row.toString());
+        }
+        if (ladybugs == 0) {
+            board.set(0, LADYBUG_SYMBOLS.charAt(1) + board.get(0).substring(1));
+        }
+        return board;
+    }
+
+    private List<String> randomTree(int tree, List<String> ids) {
+        String root = "N" + nextNode++;
+        ids.add(root);
+        List<String> body = new ArrayList<>();
+        addChildren(root, 0, body, ids);
+        body.set(0, body.get(0).replaceFirst("^    " + root, "    " + root + randomComposite()));
+        List<String> lines = new ArrayList<>();
+        lines.add("flowchart TD");
+        lines.addAll(body);
+        lines.add("    " + root + " --> Z" + tree + "[move]");
+        return lines;
+    }
+
+    private void addChildren(String parent, int depth, List<String> lines, List<String> ids) {
+        int children = 1 + random.nextInt(MAXIMUM_CHILDREN);
+        for (int child = 0; child < children; child++) {
+            String id = "N" + nextNode++;
+            ids.add(id);
+            boolean composite = depth < MAXIMUM_DEPTH && random.nextInt(COMPOSITE_ODDS) == 0;
+            lines.add("    " + parent + " --> " + id + (composite ? randomComposite() : randomLeaf()));
+            if (composite) {
+                addChildren(id, depth + 1, lines, ids);
+            }
+        }
+    }
+
+    private String randomComposite() {
+        return switch (random.nextInt(COMPOSITE_ODDS)) {
+            case 0 -> "[->]";
+            case 1 -> "[?]";
+            default -> "[=" + (1 + random.nextInt(MAXIMUM_PARALLEL_THRESHOLD)) + ">]";
+        };
+    }
+
+    private String randomLeaf() {
+        return LEAVES[random.nextInt(LEAVES.length)]
+                .formatted(random.nextInt(columns + 1), random.nextInt(rows + 1),
+                        random.nextInt(columns), random.nextInt(rows));
+    }
+}
@@ -0,0 +1,90 @@
+package edu.kit.kastel.model.tree;
+
+import edu.kit.kastel.model.Game;
+import edu.kit.kastel.model.exceptions.BoardParserException;
+import edu.kit.kastel.model.exceptions.TreeParserException;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Allocation benchmark of the tick path.
+ * After a warm-up, ticking a tree that runs every kind of node must not allocate per tick,
+ * as measured by the allocation counter of the current thread.
+ * The result depends on the escape analysis of the JIT compiler, so the benchmark only runs with
+ * the {@code benchmark} profile of the build.
+ * @author ujsap
+ */
+@Tag("benchmark")
+class TickAllocationTest {
+
+    private static final int LADYBUG_ID = 1;
+    private static final int WARM_UP_TICKS = 200_000;
+    private static final int MEASURED_TICKS = 500_000;
+    // allows for a few incidental allocations over the whole measurement
+    private static final double MAXIMUM_BYTES_PER_TICK = 0.01;
+    private static final List<String> BOARD = List.of(
+            ">...*.o..#..........",
+            "....................",
+            "....................",
+            "....................",
+            "....................",
+            "..#....*....o.......",
+            "....................",
+            "....................",
+            "....................",
+            "....................",
+            "..#....*....o.......");
+    private static final List<String> TREE = List.of(
+            "flowchart TD",
+            "    A[?] --> B[->]",
+            "    A --> C[=1>]",
+            "    B --> D([treeFront])",
+            "    B --> E[turnLeft]",
+            "    C --> F[takeLeaf]",
+            "    C --> G[move]",
+            "    C --> H[->]",
+            "    H --> I([atEdge])",
+            "    H --> J[turnRight]",
+            "    H --> K([existsPath 3,3])",
+            "    H --> L[fly 5,5]",
+            "    H --> M[placeLeaf]");
+
+    /**
+     * Measures the bytes allocated per tick in the steady state of every engine.
+     * @param engine the engine to tick the tree with
+     */
+    @ParameterizedTest
+    @EnumSource(TreeEngine.class)
+    void steadyStateTicksDoNotAllocate(TreeEngine engine) throws BoardParserException, TreeParserException {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled());
+
+        Game game = new Game();
+        game.setTreeEngine(engine);
+        game.loadBoard(BOARD);
+        game.commitTrees(game.loadTreeFile(TREE, game.getInitialLadybugs()));
+        for (int tick = 0; tick < WARM_UP_TICKS; tick++) {
+            game.singleNextAction(LADYBUG_ID);
+        }
+
+        long entries = 0;
+        long before = threads.getCurrentThreadAllocatedBytes();
+        for (int tick = 0; tick < MEASURED_TICKS; tick++) {
+            entries += game.singleNextAction(LADYBUG_ID).size();
+        }
+        long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+
+        double bytesPerTick = (double) allocated / MEASURED_TICKS;
+        assertTrue(entries > 0);
+        assertTrue(bytesPerTick <= MAXIMUM_BYTES_PER_TICK,
+                "%s allocated %.4f bytes per tick".formatted(engine, bytesPerTick));
+    }
+}
@@ -0,0 +1,247 @@
+package edu.kit.kastel.model.tree;
+
+import edu.kit.kastel.model.board.Board;
+import edu.kit.kastel.model.board.CellType;
+import edu.kit.kastel.model.board.Direction;
+import edu.kit.kastel.model.board.Ladybug;
+import edu.kit.kastel.model.board.Position;
+import edu.kit.kastel.model.exceptions.TreeParserException;
+import edu.kit.kastel.model.parsing.EditScriptParser;
+import edu.kit.kastel.model.parsing.TreeParser;
+import edu.kit.kastel.model.tree.nodes.Node;
+import edu.kit.kastel.model.tree.nodes.NodeStatus;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests batches of {@link TreeEdit edits}, from parsing an edit script to the state taken over by the edited tree.
+ * All tests edit the tree {@code A(B(D E) C(F G))}, where {@code A} and {@code C} are sequences,
+ * {@code B} is a fallback, {@code D} is a condition and all other nodes are actions.
+ * @author ujsap
+ */
+class TreeEditTest {
+
+    private static final String SHAPE = "A(B(D E) C(F G))";
+    private static final int SIZE = 5;
+    private static final int TICKS = 3;
+    private static final Position START = new Position(2, 2);
+    private final TreeParser treeParser = new TreeParser();
+    private final EditScriptParser editScriptParser = new EditScriptParser(treeParser);
+
+    /**
+     * Every kind of edit changes the copy as described and leaves the edited definition unchanged.
+     * @throws TreeParserException if an edit is rejected
+     */
+    @Test
+    void everyKindOfEditChangesTheCopy() throws TreeParserException {
+        assertEdited("A(B(D E N) C(F G))", "insert E N[move]");
+        assertEdited("A(B(D N E) C(F G))", "insert D N[move]");
+        assertEdited("A(B(D E) C(F G N))", "append C N[move]");
+        assertEdited("A(B(D E) C(F G) N)", "append A N[move]");
+        assertEdited("A(C(F G))", "remove B");
+        assertEdited("A(N C(F G))", "replace B N[move]");
+        assertEdited("A(B(D E) G C(F))", "move G B");
+        assertEdited("A(C(F G B(D E)))", "move B G");
+        assertEdited("A(B(D C(F G) E))", "move C D");
+        assertEdited("A(B(E N) C(F G) D)", "insert E N[move]", "move D C");
+    }
+
+    /**
+     * A replacement may reuse the id of the replaced node or of a node in its subtree,
+     * but not the id of any other node.
+     * @throws TreeParserException if an edit is rejected
+     */
+    @Test
+    void replaceMayReuseIdsOfTheReplacedSubtree() throws TreeParserException {
+        assertEdited("A(B C(F G))", "replace B B[move]");
+        assertEdited("A(D C(F G))", "replace B D[move]");
+        assertEdited("A(B(D E) C(F G(H)))", "replace G G[->]", "append G H[move]");
+        assertRejected("edit 1: node F exists already", "replace B F[move]");
+    }
+
+    /**
+     * A node can not be moved after itself or after a node in its own subtree.
+     */
+    @Test
+    void moveIntoOwnSubtreeIsRejected() {
+        assertRejected("edit 1: node B can not be moved into its own subtree", "move B D");
+        assertRejected("edit 1: node B can not be moved into its own subtree", "move B B");
+        assertRejected("edit 2: node C can not be moved into its own subtree", "move D F", "move C D");
+    }
+
+    /**
+     * Edits that refer to missing nodes, edit the root, add existing ids or would leave no action are rejected,
+     * with the number of the failing edit in the message.
+     */
+    @Test
+    void invalidEditsAreRejectedWithTheirNumber() {
+        assertRejected("edit 1: node X could not be found", "remove X");
+        assertRejected("edit 2: root can not be edited", "remove D", "remove A");
+        assertRejected("edit 1: node D exists already", "insert E D[move]");
+        assertRejected("edit 1: action type can not be parent", "append E N[move]");
+        assertRejected("edit 2: node D could not be found", "remove B", "move D C");
+        assertRejected("tree must contain at least one action", "remove B", "remove C");
+    }
+
+    /**
+     * Parsing errors name the line of the script, counting blank lines.
+     */
+    @Test
+    void scriptErrorsNameTheirLine() {
+        assertScriptError("line 3: unknown edit: frob", "remove D", "", "frob X");
+        assertScriptError("line 1: invalid edit syntax: remove", "remove");
+        assertScriptError("line 2: invalid edit syntax: remove D E", "remove B", "remove D E");
+        assertScriptError("line 1: invalid edit syntax: move B C D", "move B C D");
+    }
+
+    /**
+     * A rejected batch changes neither the tree it was applied to, nor its state,
+     * nor the definition it shares with another tree.
+     * @throws TreeParserException if the accepted batch is rejected
+     */
+    @Test
+    void rejectedBatchLeavesTreeAndSharedDefinitionUntouched() throws TreeParserException {
+        TreeDefinition definition = definition();
+        BehaviorTree shared = new BehaviorTree(definition);
+        Run edited = new Run(new BehaviorTree(definition));
+        Run reference = new Run(new BehaviorTree(definition));
+        for (int tick = 0; tick < TICKS; tick++) {
+            edited.tick();
+            reference.tick();
+        }
+
+        List<TreeEdit> edits = editScriptParser.parse(List.of("insert E N[move]", "remove D", "move C X"));
+        TreeParserException error = assertThrows(TreeParserException.class, () -> edited.tree.applyEdits(edits));
+        assertEquals("edit 3: node X could not be found", error.getMessage());
+        assertEquals(SHAPE, shapeOf(edited.tree));
+        assertEquals(SHAPE, shapeOf(shared));
+        assertFalse(edited.tree.hasNode("N"));
+        for (int tick = 0; tick < TICKS; tick++) {
+            assertEquals(reference.tick(), edited.tick(), "tick %d after the rejected batch".formatted(tick));
+        }
+
+        edited.tree.applyEdits(editScriptParser.parse(List.of("insert E N[move]")));
+        assertEquals("A(B(D E N) C(F G))", shapeOf(edited.tree));
+        assertEquals(SHAPE, shapeOf(shared));
+        assertEquals(SHAPE, shapeOf(new BehaviorTree(definition)));
+    }
+
+    /**
+     * The edited tree takes over the status of every node it keeps and the current node if it still exists,
+     * while new nodes start at {@link NodeStatus#ENTRY}.
+     * @throws TreeParserException if an edit is rejected
+     */
+    @Test
+    void adoptedStateKeepsStatusesAndCurrentNode() throws TreeParserException {
+        TreeDefinition original = definition();
+        TreeState state = original.newState();
+        state.setStatus(original.indexOf("B"), NodeStatus.SUCCESS);
+        state.setStatus(original.indexOf("C"), NodeStatus.RUNNING);
+        state.setStatus(original.indexOf("F"), NodeStatus.FAILURE);
+        state.setStatus(original.indexOf("G"), NodeStatus.SUCCESS);
+        state.setCurrent(original.indexOf("G"));
+
+        TreeDefinition edited = original.withEdits(editScriptParser.parse(
+                List.of("remove D", "insert F N[move]", "replace G G[turnLeft]", "move C B")));
+        TreeState adopted = edited.adoptState(state);
+        assertEquals(NodeStatus.SUCCESS, adopted.getStatus(edited.indexOf("B")));
+        assertEquals(NodeStatus.RUNNING, adopted.getStatus(edited.indexOf("C")));
+        assertEquals(NodeStatus.FAILURE, adopted.getStatus(edited.indexOf("F")));
+        assertEquals(NodeStatus.ENTRY, adopted.getStatus(edited.indexOf("N")));
+        // the replacement is a new node, even though it has the same id
+        assertEquals(NodeStatus.ENTRY, adopted.getStatus(edited.indexOf("G")));
+        assertEquals(edited.indexOf("A"), adopted.getCurrent());
+
+        state.setCurrent(original.indexOf("F"));
+        assertEquals(edited.indexOf("F"), edited.adoptState(state).getCurrent());
+    }
+
+    private void assertEdited(String expected, String... script) throws TreeParserException {
+        TreeDefinition original = definition();
+        TreeDefinition edited = original.withEdits(editScriptParser.parse(List.of(script)));
+        assertEquals(expected, shapeOf(edited.getRoot()), String.join("; ", script));
+        assertEquals(SHAPE, shapeOf(original.getRoot()), "original after " + String.join("; ", script));
+    }
+
+    private void assertRejected(String message, String... script) {
+        TreeDefinition original = definition();
+        TreeParserException error = assertThrows(TreeParserException.class,
+                () -> original.withEdits(editScriptParser.parse(List.of(script))));
+        assertEquals(message, error.getMessage());
+        assertEquals(SHAPE, shapeOf(original.getRoot()));
+    }
+
+    private void assertScriptError(String message, String... script) {
+        TreeParserException error = assertThrows(TreeParserException.class,
+                () -> editScriptParser.parse(List.of(script)));
+        assertEquals(message, error.getMessage());
+    }
+
+    private TreeDefinition definition() {
+        try {
+            Node root = treeParser.parseSingleNode("A[->]");
+            Node fallback = child(root, "B[?]");
+            child(fallback, "D([treeFront])");
+            child(fallback, "E[turnLeft]");
+            Node sequence = child(root, "C[->]");
+            child(sequence, "F[move]");
+            child(sequence, "G[turnRight]");
+            root.setParent(root);
+            return new TreeDefinition(root);
+        } catch (TreeParserException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Node child(Node parent, String token) throws TreeParserException {
+        Node child = treeParser.parseSingleNode(token);
+        parent.addChild(child);
+        return child;
+    }
+
+    private static String shapeOf(BehaviorTree tree) {
+        return shapeOf(tree.findNodeByID(tree.getRootID()));
+    }
+
+    private static String shapeOf(Node node) {
+        if (node.getChildren().isEmpty()) {
+            return node.getId();
+        }
+        StringBuilder shape = new StringBuilder(node.getId()).append('(');
+        for (Node child : node.getChildren()) {
+            shape.append(shapeOf(child)).append(' ');
+        }
+        shape.setLength(shape.length() - 1);
+        return shape.append(')').toString();
+    }
+
+    /**
+     * A tree that ticks a ladybug of its own on an empty board.
+     */
+    private static final class Run {
+        private final BehaviorTree tree;
+        private final Ladybug ladybug = new Ladybug(1, START, Direction.UP);
+        private final Board board;
+
+        Run(BehaviorTree tree) {
+            this.tree = tree;
+            CellType[][] cells = new CellType[SIZE][SIZE];
+            for (CellType[] row : cells) {
+                Arrays.fill(row, CellType.EMPTY);
+            }
+            this.board = new Board(cells);
+            board.occupy(ladybug.getPackedPosition(), ladybug.getId());
+        }
+
+        String tick() {
+            return tree.tick(ladybug, board).getEntries().toString() + ' ' + ladybug.getPosition()
+                    + ladybug.getDirection();
+        }
+    }
+}